@@ -0,0 +1,34 @@
+package com.dndcraft.atlas.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Main class of the benchmarks jar. Takes the usual JMH command line and always adds the GC profiler,
+ * so every run reports the bytes allocated per operation next to the timings.
+ * Run with: java -jar atlas-benchmarks/target/benchmarks.jar [JMH options, e.g. a benchmark name regex]
+ * @Author Nickrocky
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		if(commandLine.shouldHelp()) {
+			commandLine.showHelp();
+			return;
+		}
+
+		Runner runner = new Runner(new OptionsBuilder()
+				.parent(commandLine)
+				.addProfiler(GCProfiler.class)
+				.build());
+		if(commandLine.shouldList()) runner.list();
+		else runner.run();
+	}
+}
@@ -0,0 +1,55 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.command.AgnosticExecutor;
+import com.dndcraft.atlas.command.AtlasCommand;
+import com.dndcraft.atlas.command.brigadier.Kommandant;
+import com.mojang.brigadier.tree.CommandNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What registering a command costs at enable: parsing the annotated template and building its Brigadier tree.
+ * The benchmarks are compiled with atlas-processor, so the parser takes the compiled template path.
+ * @Author Nickrocky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BuildBenchmark {
+	private AtlasCommand command;
+	private AgnosticExecutor executor;
+
+	@Setup
+	public void setup() {
+		FakeAtlas.install();
+		command = GuildTemplate.parse();
+		executor = new AgnosticExecutor(command);
+	}
+
+	@Benchmark
+	public AtlasCommand parseTemplate() {
+		return GuildTemplate.parse();
+	}
+
+	@Benchmark
+	public List<CommandNode<Object>> addBrigadier() {
+		Kommandant kommandant = new FakeKommandant(command);
+		kommandant.executeWith(executor);
+		kommandant.addBrigadier();
+		return kommandant.getNodes();
+	}
+}
@@ -0,0 +1,50 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.command.AgnosticExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A tab completion, which clients ask for on nearly every keystroke
+ * @Author Nickrocky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CompletionBenchmark {
+
+	@Param({"", "b", "bank ", "bank w", "invite Steve -", "promote Steve o"})
+	public String input;
+
+	private AgnosticExecutor executor;
+	private FakeSender sender;
+	private String[] args;
+
+	@Setup
+	public void setup() {
+		FakeAtlas.install();
+		executor = new AgnosticExecutor(GuildTemplate.parse());
+		sender = FakeSender.op("Steve");
+		args = input.split(" ", -1); //Keeps the empty argument being typed after a trailing space
+	}
+
+	@Benchmark
+	public List<String> onTabComplete() {
+		return executor.onTabComplete(sender, "guild", args);
+	}
+}
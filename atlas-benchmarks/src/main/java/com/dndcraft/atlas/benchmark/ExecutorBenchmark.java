@@ -0,0 +1,57 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.command.AgnosticExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A chat command, from the split input to the command method having ran
+ * @Author Nickrocky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExecutorBenchmark {
+
+	@Param({
+		"Dragons",
+		"create Dragons DRG",
+		"invite Steve -rank officer -s",
+		"promote Steve officer",
+		"motd Welcome to the guild hall, mind the dragons",
+		"bank deposit 250",
+		"list"
+	})
+	public String input;
+
+	private AgnosticExecutor executor;
+	private FakeSender sender;
+	private String[] args;
+
+	@Setup
+	public void setup() {
+		FakeAtlas.install();
+		executor = new AgnosticExecutor(GuildTemplate.parse());
+		sender = FakeSender.op("Steve");
+		args = input.split(" ");
+	}
+
+	@Benchmark
+	public boolean onCommand() {
+		return executor.onCommand(sender, "guild", args);
+	}
+}
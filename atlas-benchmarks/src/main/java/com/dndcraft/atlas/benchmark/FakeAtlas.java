@@ -0,0 +1,39 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.Atlas;
+import com.dndcraft.atlas.InstanceProvider;
+import com.dndcraft.atlas.agnostic.AbstractComponentBuilder;
+import com.dndcraft.atlas.agnostic.CommonComponentBuilder;
+
+import java.io.File;
+import java.util.logging.Logger;
+
+/**
+ * An Atlas without a platform behind it, just enough for the command framework to run
+ * @Author Nickrocky
+ */
+public class FakeAtlas implements Atlas {
+	private static final Logger LOGGER = Logger.getLogger("Atlas-Benchmarks");
+
+	/**
+	 * Makes Atlas.get() return a FakeAtlas. Skips InstanceProvider.init() on purpose, the benchmarks have no use for SQL or MongoDB
+	 */
+	public static synchronized void install() {
+		if(InstanceProvider.INSTANCE == null) InstanceProvider.INSTANCE = new FakeAtlas();
+	}
+
+	@Override
+	public File getDataFolder() {
+		return new File(System.getProperty("java.io.tmpdir"), "atlas-benchmarks");
+	}
+
+	@Override
+	public Logger getLogger() {
+		return LOGGER;
+	}
+
+	@Override
+	public AbstractComponentBuilder<?> componentBuilder() {
+		return new CommonComponentBuilder();
+	}
+}
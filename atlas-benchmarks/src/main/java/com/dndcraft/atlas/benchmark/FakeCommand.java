@@ -0,0 +1,20 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.agnostic.Command;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What a platform would normally read from its plugin.yml or command registration
+ * @Author Nickrocky
+ */
+@Getter
+@RequiredArgsConstructor
+public class FakeCommand implements Command {
+	private final String name;
+	private final String description;
+	private final String permission;
+	private final List<String> aliases;
+}
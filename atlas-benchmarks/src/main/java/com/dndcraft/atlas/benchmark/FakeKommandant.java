@@ -0,0 +1,30 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.command.AtlasCommand;
+import com.dndcraft.atlas.command.CmdArg;
+import com.dndcraft.atlas.command.brigadier.Kommandant;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.builder.RequiredArgumentBuilder;
+
+/**
+ * A Kommandant whose Brigadier sources are the senders themselves
+ * @Author Nickrocky
+ */
+public class FakeKommandant extends Kommandant {
+
+	public FakeKommandant(AtlasCommand built) {
+		super(built);
+	}
+
+	@Override
+	protected Sender getSender(Object source) {
+		return (Sender) source;
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	protected RequiredArgumentBuilder makeBuilderWithSuggests(String name, ArgumentType<?> type, CmdArg<?> arg) {
+		return RequiredArgumentBuilder.argument(name, type);
+	}
+}
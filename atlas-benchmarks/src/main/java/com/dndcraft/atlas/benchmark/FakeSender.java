@@ -0,0 +1,46 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.agnostic.Sender;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import net.kyori.adventure.text.Component;
+
+import java.util.Set;
+
+/**
+ * A sender with a fixed set of permissions that drops every message it gets, only counting them
+ * @Author Nickrocky
+ */
+@RequiredArgsConstructor
+public class FakeSender implements Sender {
+	private final String name;
+	private final Set<String> permissions;
+	@Getter private int messages = 0;
+
+	/**
+	 * @return a sender that has every permission
+	 */
+	public static FakeSender op(String name) {
+		return new FakeSender(name, null);
+	}
+
+	@Override
+	public boolean hasPermission(String perm) {
+		return permissions == null || permissions.contains(perm);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public void sendMessage(String msg) {
+		messages++;
+	}
+
+	@Override
+	public void sendMessage(Component msg) {
+		messages++;
+	}
+}
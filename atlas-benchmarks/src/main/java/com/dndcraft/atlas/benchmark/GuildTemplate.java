@@ -0,0 +1,99 @@
+package com.dndcraft.atlas.benchmark;
+
+import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.command.AnnotatedCommandParser;
+import com.dndcraft.atlas.command.AtlasCommand;
+import com.dndcraft.atlas.command.CommandTemplate;
+import com.dndcraft.atlas.command.annotations.Arg;
+import com.dndcraft.atlas.command.annotations.Cmd;
+import com.dndcraft.atlas.command.annotations.Default;
+import com.dndcraft.atlas.command.annotations.Flag;
+import com.dndcraft.atlas.command.annotations.Joined;
+import com.dndcraft.atlas.command.annotations.Range;
+import net.kyori.adventure.text.Component;
+
+import java.util.List;
+
+/**
+ * A command tree shaped like the ones plugins actually register: a few levels deep, with permissions, defaults,
+ * ranges, enums, joined strings and flags. The methods do next to nothing so the benchmarks measure the framework.
+ * @Author Nickrocky
+ */
+public class GuildTemplate extends CommandTemplate {
+	public static final FakeCommand COMMAND = new FakeCommand("guild", "Everything guilds", null, List.of("g", "guilds"));
+
+	private static final Component DONE = Component.text("Done.");
+
+	public enum Rank { RECRUIT, MEMBER, OFFICER, LEADER }
+
+	/**
+	 * Parses this template the way Commands.build does on a platform, minus registering it anywhere
+	 */
+	public static AtlasCommand parse() {
+		AtlasCommand[] built = new AtlasCommand[1];
+		new AnnotatedCommandParser(GuildTemplate::new, COMMAND).invokeParse(command -> built[0] = command).build();
+		return built[0];
+	}
+
+	public void invoke(@Arg("guild") String guild) {
+		msg(DONE);
+	}
+
+	@Cmd(value = "Found a new guild", permission = "guild.create")
+	public void create(Sender sender, @Arg("name") String name, @Arg("tag") @Default("NONE") String tag) {
+		validate(tag.length() <= 4, Component.text("Tags are at most 4 letters"));
+		msg(DONE);
+	}
+
+	@Cmd("Invite a player into your guild")
+	@Flag(name = "rank", aliases = "r", type = Rank.class, description = "The rank they join at")
+	@Flag(name = "silent", aliases = "s", description = "Don't announce it")
+	public void invite(Sender sender, @Arg("player") String player) {
+		Rank rank = hasFlag("rank")? getFlag("rank") : Rank.RECRUIT;
+		validate(rank != Rank.LEADER, Component.text("A guild only has one leader"));
+		if(!hasFlag("silent")) msg(DONE);
+	}
+
+	@Cmd(value = "Change the rank of a member", permission = "guild.promote", aliases = "rank")
+	public void promote(@Arg("player") String player, @Arg("rank") Rank rank) {
+		msg(DONE);
+	}
+
+	@Cmd(value = "Set the message of the day", permission = "guild.motd")
+	public void motd(@Arg("message") @Joined String message) {
+		msg(DONE);
+	}
+
+	@Cmd("List the guilds")
+	public void list(@Arg("page") @Default("1") @Range(min = 1) int page) {
+		msg(DONE);
+	}
+
+	@Cmd(value = "Manage the guild's bank", permission = "guild.bank")
+	public BankTemplate bank() {
+		return new BankTemplate();
+	}
+
+	public static class BankTemplate extends CommandTemplate {
+
+		@Cmd("Put coins in the bank")
+		public void deposit(Sender sender, @Arg("amount") @Range(min = 1, max = 100000) int amount) {
+			msg(DONE);
+		}
+
+		@Cmd(value = "Take coins out of the bank", permission = "guild.bank.withdraw")
+		public void withdraw(Sender sender, @Arg("amount") @Range(min = 1) int amount, @Arg("reason") @Default("none") String reason) {
+			msg(DONE);
+		}
+
+		@Cmd("Set the tax taken from members")
+		public void tax(@Arg("percentage") @Range(min = 0, max = 100) double percentage) {
+			msg(DONE);
+		}
+
+		@Cmd("Check the balance")
+		public void balance() {
+			msg(DONE);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.benchmark.FakeAtlas;
+import com.dndcraft.atlas.benchmark.FakeSender;
+import com.dndcraft.atlas.benchmark.GuildTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RanCommand turning the input of a command into its flags and arguments, without dispatch or execution.
+ * Lives in the command package since parsing isn't public API.
+ * @Author Nickrocky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FlagParsingBenchmark {
+
+	@Param({"Steve", "Steve -s", "Steve -rank officer", "-r officer Steve -silent"})
+	public String input;
+
+	private AtlasCommand invite;
+	private Map<String, CmdFlag> flagAliases;
+	private FakeSender sender;
+	private List<String> args;
+
+	@Setup
+	public void setup() {
+		FakeAtlas.install();
+		invite = GuildTemplate.parse().getSubCommands().stream()
+				.filter(c -> c.getMainCommand().equals("invite"))
+				.findFirst().orElseThrow();
+		flagAliases = CommandDispatch.compile(invite).getFlagAliases();
+		sender = FakeSender.op("Steve");
+		args = List.of(input.split(" "));
+	}
+
+	@Benchmark
+	public RanCommand parseAll() {
+		RanCommand rc = new RanCommand(invite, "invite", sender);
+		rc.parseAll(args, flagAliases);
+		return rc;
+	}
+}
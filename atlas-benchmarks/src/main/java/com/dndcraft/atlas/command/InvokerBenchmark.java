@@ -0,0 +1,81 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.benchmark.FakeAtlas;
+import com.dndcraft.atlas.benchmark.FakeSender;
+import com.dndcraft.atlas.benchmark.GuildTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three ways a command method can be called, on the same method with the same resolved arguments:
+ * plain reflection like the parser used to, the method handle CommandInvoker builds, and the direct call
+ * atlas-processor generates.
+ * @Author Nickrocky
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class InvokerBenchmark {
+	private CommandTemplate template;
+	private RanCommand rc;
+	private Method method;
+	private CommandInvoker handle;
+	private CommandInvoker compiled;
+
+	@Setup
+	public void setup() throws ReflectiveOperationException {
+		FakeAtlas.install();
+		Class<GuildTemplate.BankTemplate> type = GuildTemplate.BankTemplate.class;
+		method = type.getMethod("deposit", Sender.class, int.class);
+
+		AtlasCommand deposit = GuildTemplate.parse().getSubCommands().stream()
+				.filter(c -> c.getMainCommand().equals("bank")).findFirst().orElseThrow()
+				.getSubCommands().stream()
+				.filter(c -> c.getMainCommand().equals("deposit")).findFirst().orElseThrow();
+		rc = new RanCommand(deposit, "deposit", FakeSender.op("Steve"));
+		rc.getArgResults().add(250);
+		template = new GuildTemplate.BankTemplate();
+		template.setRanCommand(rc);
+
+		handle = CommandInvoker.of(method, CommandInvoker.SenderMode.SENDER);
+		CompiledTemplate generated;
+		try {
+			generated = (CompiledTemplate) Class.forName(type.getName() + CompiledTemplate.SUFFIX).getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("The benchmarks were compiled without atlas-processor", e);
+		}
+		compiled = CommandInvoker.compiled(generated.find(CompiledTemplate.signature(method)), CommandInvoker.SenderMode.SENDER);
+	}
+
+	@Benchmark
+	public void reflection() throws ReflectiveOperationException {
+		Object[] params = new Object[method.getParameterCount()];
+		for(int i = 0; i < params.length; i++) params[i] = CommandInvoker.SenderMode.SENDER.parameter(rc, i);
+		method.invoke(template, params);
+	}
+
+	@Benchmark
+	public void methodHandle() throws Throwable {
+		handle.invoke(template, rc);
+	}
+
+	@Benchmark
+	public void compiled() throws Throwable {
+		compiled.invoke(template, rc);
+	}
+}
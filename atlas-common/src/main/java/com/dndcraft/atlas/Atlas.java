@@ -6,6 +6,7 @@ import com.dndcraft.atlas.io.mongodb.AtlasStorage;
 import com.dndcraft.atlas.io.sql.SQLHandler;
 
 import java.io.File;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
 public interface Atlas {
@@ -22,4 +23,12 @@ public interface Atlas {
 
     AbstractComponentBuilder<?> componentBuilder();
 
+    /**
+     * Platforms with a main server thread should hand out an executor that runs tasks on it.
+     * @ApiNote Defaults to running tasks right away on the calling thread, for platforms without a main thread.
+     * */
+    default Executor mainThreadExecutor() {
+        return Runnable::run;
+    }
+
 }
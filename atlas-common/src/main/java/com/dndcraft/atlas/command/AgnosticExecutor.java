@@ -1,51 +1,124 @@
 package com.dndcraft.atlas.command;
 
-import com.dndcraft.atlas.Atlas;
 import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.util.AtlasWorkers;
 import com.google.common.collect.Lists;
-import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang.StringUtils;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.context.ParsedCommandNode;
+import com.mojang.brigadier.tree.LiteralCommandNode;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
-@RequiredArgsConstructor
 public class AgnosticExecutor {
-	private final AtlasCommand rootCommand;
+	private final CommandDispatch root;
+	private final CommandTrace trace;
+	private final Map<AtlasCommand, CommandDispatch> byCommand = new IdentityHashMap<>();
+	
+	public AgnosticExecutor(AtlasCommand rootCommand) {
+		this.root = CommandDispatch.compile(rootCommand);
+		this.trace = CommandTrace.of(rootCommand.getMainCommand());
+		index(root);
+	}
+	
+	private void index(CommandDispatch dispatch) {
+		byCommand.put(dispatch.getCommand(), dispatch);
+		for(CommandDispatch sub : dispatch.getSubCommands()) index(sub);
+	}
 	
 	public boolean onCommand(Sender sender, String label, String[] args) {
 		List<String> listArgs = new ArrayList<>();
 		for (String arg : args) listArgs.add(arg);
-		runCommand(sender, rootCommand, label, listArgs);
+		runCommand(sender, PermissionCache.of(sender), root, label, listArgs);
 		return true;
 	}
 	
+	/**
+	 * Runs a (sub)command straight from a Brigadier parse of its input, so the arguments Brigadier already
+	 * turned into values aren't split and mapped from strings a second time.
+	 * Input using flags is handed to {@link #onCommand(Sender, String, String[])} instead.
+	 * @param command the (sub)command whose node Brigadier executed
+	 * @param argNames the names of the argument nodes of the command, in order
+	 */
+	public void executeParsed(Sender sender, AtlasCommand command, List<String> argNames, CommandContext<?> context) {
+		String input = context.getInput();
+		int from = input.startsWith("/")? 1 : 0;
+		int aliasEnd = input.length();
+		Object[] parsed = new Object[argNames.size()];
+		String[] raw = new String[argNames.size()];
+		
+		CommandDispatch dispatch = byCommand.get(command);
+		boolean flagged = dispatch == null;
+		for(ParsedCommandNode<?> node : context.getNodes()) {
+			if(node.getNode() instanceof LiteralCommandNode) continue;
+			aliasEnd = Math.min(aliasEnd, node.getRange().getStart());
+			
+			int i = argNames.indexOf(node.getNode().getName());
+			if(i < 0) { //Only flags aren't named after an argument
+				flagged = true;
+				break;
+			}
+			parsed[i] = context.getArgument(argNames.get(i), Object.class);
+			raw[i] = node.getRange().get(input);
+		}
+		
+		if(flagged) {
+			String[] split = input.substring(from).split(" ", -1);
+			String[] args = new String[split.length - 1];
+			System.arraycopy(split, 1, args, 0, args.length);
+			onCommand(sender, split[0], args);
+			return;
+		}
+		
+		String usedAlias = input.substring(from, Math.max(from, aliasEnd)).trim();
+		PermissionCache permissions = PermissionCache.of(sender);
+		if(!permissions.allows(command)) {
+			sender.sendMessage(RanCommand.ERROR_PREFIX + "You do not have permission to use this");
+			if(command.isAudited()) CommandAudit.record(sender, usedAlias, "denied: no permission");
+			return;
+		} else if (command.getRateLimit() != null && !command.getRateLimit().tryAcquire(sender, permissions)) {
+			sender.sendMessage(RateLimit.REJECTED);
+			if(command.isAudited()) CommandAudit.record(sender, usedAlias, "denied: rate limited");
+			return;
+		}
+		
+		List<String> given = new ArrayList<>(raw.length);
+		for(String r : raw) if(r != null) given.add(r);
+		run(dispatch, new RanCommand(command, usedAlias, sender), given, c->c.parseParsed(parsed, raw));
+	}
+	
 	public List<String> onTabComplete(Sender sender, String alias, String[] args) {
 		try{
             List<String> listArgs = new ArrayList<>();
 			for (String arg : args) listArgs.add(arg);
-			return getCompletions(sender, rootCommand, listArgs);
+			return getCompletions(sender, PermissionCache.of(sender), root, listArgs);
 		} catch(ArrayIndexOutOfBoundsException e) {
 			e.printStackTrace();
 			return Lists.newArrayList();
 		}
 	}
 	
-	private List<String> getCompletions(Sender sender, AtlasCommand command, List<String> args) {
-		AtlasCommand subCommand = wantsSubCommand(command, args);
-		if(subCommand != null && subCommand.hasPermission(sender)) {
+	private List<String> getCompletions(Sender sender, PermissionCache permissions, CommandDispatch dispatch, List<String> args) {
+		CommandDispatch subCommand = dispatch.wantsSubCommand(args);
+		if(subCommand != null && permissions.allows(subCommand.getCommand())) {
 			args.remove(0);
-			return getCompletions(sender, subCommand, args);
+			return getCompletions(sender, permissions, subCommand, args);
 		} else {
 			List<String> options;
 			if(args.isEmpty()) return Lists.newArrayList();
+			RateLimit limit = dispatch.getCommand().getCompletionLimit();
+			if(limit != null && !limit.tryAcquire(sender, permissions)) return Lists.newArrayList();
 			int index = args.size() - 1;
 			String last = args.get(index).toLowerCase();
-			if(args.size() == 1) options = subCompletions(sender, command, last);
+			if(args.size() == 1) options = subCompletions(permissions, dispatch, last);
 			else options = new ArrayList<>();
 			
+			AtlasCommand command = dispatch.getCommand();
+			//Has to answer right away, so async completers run on the calling thread here too (see CommandCompleter#async)
 			if(index < command.getArgs().size())
 				command.getArgs()
 				.get(index)
@@ -53,100 +126,108 @@ public class AgnosticExecutor {
 				.suggest(sender, args.get(index))
 				.forEach(sugg->options.add(sugg.getLiteral()));
 			
-			return options.stream().filter(s->s.toLowerCase().startsWith(last)).collect(Collectors.toList());
+			options.removeIf(s->!s.regionMatches(true, 0, last, 0, last.length()));
+			return options;
 		}
 	}
 
-	private void runCommand(Sender sender, AtlasCommand command, String usedAlias, List<String> args) {
-		AtlasCommand subCommand = wantsSubCommand(command, args);
-		Atlas.get().getLogger().warning("catching alias " + usedAlias + ". SubCommand found: " + subCommand);
-		if(!args.isEmpty()) Atlas.get().getLogger().warning("These are its arguments: " + StringUtils.join(args, ", "));
+	private void runCommand(Sender sender, PermissionCache permissions, CommandDispatch dispatch, String usedAlias, List<String> args) {
+		AtlasCommand command = dispatch.getCommand();
+		CommandDispatch subCommand = dispatch.wantsSubCommand(args);
 		if(subCommand != null) {
-			runSubCommand(sender, subCommand, usedAlias, args);
-		} else if (!command.hasPermission(sender)) {
+			runSubCommand(sender, permissions, subCommand, usedAlias, args);
+		} else if (!permissions.allows(command)) {
 			sender.sendMessage(RanCommand.ERROR_PREFIX + "You do not have permission to use this");
+			if(command.isAudited()) CommandAudit.record(sender, usedAlias, "denied: no permission");
+		} else if (command.getRateLimit() != null && !command.getRateLimit().tryAcquire(sender, permissions)) {
+			sender.sendMessage(RateLimit.REJECTED);
+			if(command.isAudited()) CommandAudit.record(sender, usedAlias, "denied: rate limited");
 		} else {
-			RanCommand c = new RanCommand(command, usedAlias, sender);
-			
-			try{
-				c.parseAll(args);
-			} catch(Exception e) {
-				c.handleException(e);
-				return;
-			}
-			
-			HelpCommand help = command.getHelp();
-			if(help != null && c.hasFlag("h")) {
-				help.runHelp(c, c.getFlag("h"));
-			} else {
-				executeCommand(command, c);
-			}
+			run(dispatch, new RanCommand(command, usedAlias, sender), args, c->c.parseAll(args, dispatch.getFlagAliases()));
+		}
+	}
+	
+	private void run(CommandDispatch dispatch, RanCommand c, List<String> args, Consumer<RanCommand> parser) {
+		if(!dispatch.getCommand().isAsync()) {
+			parseAndExecute(dispatch, c, args, parser);
+			return;
+		}
+		
+		try {
+			AtlasWorkers.pool().execute(()->parseAndExecute(dispatch, c, args, parser));
+		} catch(RejectedExecutionException e) { //Shutting down
+			c.handleException(e);
 		}
 	}
 	
-	private void runSubCommand(Sender sender, AtlasCommand subCommand, String usedAlias, List<String> args) {
-		if(subCommand.isInvokeOverload()) {
-			runCommand(sender, subCommand, usedAlias, args);
+	private void parseAndExecute(CommandDispatch dispatch, RanCommand c, List<String> args, Consumer<RanCommand> parser) {
+		AtlasCommand command = dispatch.getCommand();
+		CommandMetrics metrics = dispatch.getMetrics();
+		long start = System.nanoTime();
+		
+		try{
+			parser.accept(c);
+		} catch(Exception e) {
+			long failed = System.nanoTime() - start;
+			metrics.recordParse(failed, true);
+			c.handleException(e);
+			if(trace.isEnabled()) trace.record(c, args, failed, 0, "parse failed: " + e.getMessage());
+			if(command.isAudited()) CommandAudit.record(c, failed, "parse failed: " + e.getMessage());
+			return;
+		}
+		
+		long parsed = System.nanoTime();
+		metrics.recordParse(parsed - start, false);
+		Throwable failure = null;
+		HelpCommand help = dispatch.getHelp();
+		if(help != null && c.hasFlag("h")) {
+			help.runHelp(c, c.getFlag("h"));
+		} else {
+			failure = executeCommand(command, c);
+		}
+		
+		long executed = System.nanoTime() - parsed;
+		metrics.recordExecute(executed, failure);
+		if(trace.isEnabled()) trace.record(c, args, parsed - start, executed, outcome(failure));
+		if(command.isAudited()) CommandAudit.record(c, parsed - start + executed, outcome(failure));
+	}
+	
+	private void runSubCommand(Sender sender, PermissionCache permissions, CommandDispatch subCommand, String usedAlias, List<String> args) {
+		if(subCommand.getCommand().isInvokeOverload()) {
+			runCommand(sender, permissions, subCommand, usedAlias, args);
 		} else {
 			String usedSubcommandAlias = args.remove(0).toLowerCase();
 			String newAlias = usedAlias + ' ' + usedSubcommandAlias;
-			runCommand(sender, subCommand, newAlias, args);
+			runCommand(sender, permissions, subCommand, newAlias, args);
 		}
 	}
 	
-	private void executeCommand(AtlasCommand command, RanCommand c) {
+	private Throwable executeCommand(AtlasCommand command, RanCommand c) {
 		try {
 			command.execute(c); //TODO will this respect permissions even with invoke()??
+			return null;
 		} catch(RanCommand.CmdParserException e) {
 			c.handleException(e);
+			return e;
 		}
 	}
 	
-	private List<String> subCompletions(Sender sender, AtlasCommand cmd, String argZero){
+	private String outcome(Throwable failure) {
+		if(failure == null) return "ok";
+		else if(failure instanceof RanCommand.CmdParserException) return "error: " + failure.getMessage();
+		else return "exception: " + failure;
+	}
+	
+	private List<String> subCompletions(PermissionCache permissions, CommandDispatch dispatch, String argZero){
 		List<String> result = new ArrayList<>();
 		String lower = argZero.toLowerCase();
-		cmd.getSubCommands().stream()
-			.filter(s->s.hasPermission(sender))
-			.map(s->s.getBestAlias(lower))
-			.filter(Objects::nonNull)
-			.forEach(result::add);
+		for(CommandDispatch sub : dispatch.getSubCommands()) {
+			AtlasCommand s = sub.getCommand();
+			if(!permissions.allows(s)) continue;
+			String alias = s.getBestAlias(lower);
+			if(alias != null) result.add(alias);
+		}
 
 		return result;
 	}
-	
-	private AtlasCommand wantsSubCommand(AtlasCommand cmd, List<String> args) {
-		
-		List<AtlasCommand> matches = new ArrayList<>();
-
-		//Check if one of the overloads matches better based on arg count
-		cmd.getSubCommands().stream()
-		  .filter(AtlasCommand::isInvokeOverload)
-		  .filter(ac->ac.fitsArgSize(args.size()))
-		  .forEach(matches::add);
-		
-		if(matches.size() > 1) throw new IllegalStateException("Invoke overload ambiguity: Same arg size took multiple args!!");
-		else if(matches.size() == 1) return matches.get(0);
-			
-		//Otherwise, Check for literals that match a subcommand
-		if(args.isEmpty()) return null;
-		String subArg = args.get(0).toLowerCase();
-		
-		cmd.getSubCommands().stream()
-			.filter(s->!s.getMainCommand().isEmpty())
-		  .filter(s->s.isAlias(subArg))
-		  .forEach(matches::add);
-		if(matches.isEmpty()) return null;
-		else if(matches.size() == 1) return matches.get(0);
-		
-		int s = args.size() - 1;
-		for(AtlasCommand match : matches) {
-			if(match.fitsArgSize(s)) return match;
-		}
-		
-		//Fallback, no subcommand wants the amount of given arguments
-		return null;
-	}
-
-
-	
 }
@@ -1,6 +1,5 @@
 package com.dndcraft.atlas.command;
 
-import com.dndcraft.atlas.Atlas;
 import com.dndcraft.atlas.agnostic.Command;
 import com.dndcraft.atlas.agnostic.Sender;
 import com.dndcraft.atlas.command.annotations.*;
@@ -11,9 +10,10 @@ import net.kyori.adventure.text.Component;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -21,6 +21,21 @@ import java.util.stream.Stream;
 
 @RequiredArgsConstructor
 public class AnnotatedCommandParser {
+	//The class the atlas-processor generated for a template, if the plugin was compiled with it
+	private static final ClassValue<Optional<CompiledTemplate>> COMPILED = new ClassValue<>() {
+		@Override
+		protected Optional<CompiledTemplate> computeValue(Class<?> type) {
+			try {
+				Class<?> generated = Class.forName(type.getName() + CompiledTemplate.SUFFIX, true, type.getClassLoader());
+				return Optional.of((CompiledTemplate) generated.getDeclaredConstructor().newInstance());
+			} catch (ClassNotFoundException e) {
+				return Optional.empty(); //Not compiled with the processor, reflection it is
+			} catch (ReflectiveOperationException | ClassCastException e) {
+				throw new IllegalStateException("Could not load the compiled command template of " + type.getName(), e);
+			}
+		}
+	};
+	
 	private final Supplier<CommandTemplate> template;
 	private final Command pluginCommand;
 	
@@ -32,17 +47,19 @@ public class AnnotatedCommandParser {
 	private AtlasCommandBuilder parse(Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
 		Class<? extends CommandTemplate> c = template.get().getClass();
 		
-		addInvoke(c, template, acb);
+		CompiledTemplate compiled = COMPILED.get(c).orElse(null);
+		
+		addInvoke(c, compiled, template, acb);
 		
 		var cmds = Stream.of(c.getMethods()).filter(m->m.isAnnotationPresent(Cmd.class)).collect(Collectors.toList());
 		
-		for(Method method : cmds) checkForSubLayer(method, template, acb); //Note this recurses
-		for(Method method : cmds) parseCommand(method, template, acb);
+		for(Method method : cmds) checkForSubLayer(method, compiled, template, acb); //Note this recurses
+		for(Method method : cmds) parseCommand(method, compiled, template, acb);
 		
 		return acb; //this::parse is recursive. So is ArcheCommandBuilder::build. Perfect synergy :)
 	}
 	
-	private void addInvoke(Class<? extends CommandTemplate> c, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
+	private void addInvoke(Class<? extends CommandTemplate> c, CompiledTemplate compiled, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
 		//This breaks polymorphism but whatever
 		boolean firstInvokeFound = false;
 		for(Method m : c.getDeclaredMethods()) {
@@ -50,11 +67,11 @@ public class AnnotatedCommandParser {
 				//This is a invoke method declared in the class, assumed this is what we want for the default invocation of the command
 				//Due to logic of the ArcheCommandExecutor this still makes the no-argument default a help command
 				if(!firstInvokeFound) {
-					parseCommandMethod(m, template, acb);
+					parseCommandMethod(m, compiled, template, acb);
 					firstInvokeFound = true;
 				} else {
 					var overload = acb.overloadInvoke();
-					parseCommandMethod(m, template, overload);
+					parseCommandMethod(m, compiled, template, overload);
 					overload.build();
 				}
 			}
@@ -84,18 +101,22 @@ public class AnnotatedCommandParser {
 		if(!flags) result.noFlags();
 		if(desc !=  null) result.description(desc);
 		if(StringUtils.isNotEmpty(pex)) result.permission(pex);
+		if(anno.rate() > 0) result.rateLimit(anno.rate(), anno.burst());
+		if(anno.completionRate() > 0) result.completionRateLimit(anno.completionRate(), 0);
 		
 		return result;
 	}
 	
 	@SneakyThrows
-	private void checkForSubLayer(Method method, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
+	private void checkForSubLayer(Method method, CompiledTemplate compiled, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
 		if(!CommandTemplate.class.isAssignableFrom(method.getReturnType())) return;
 		if(method.getParameterCount() > 0) throw new IllegalStateException("Methods returning CommandTemplate can't also have parameters");
 		if(method.getName().equals("invoke")) throw new IllegalArgumentException("Don't annotate your invoke() methods. The method name is reserved!");
 		
 		AtlasCommandBuilder subbo = constructSubBuilder(method, acb);
-		Supplier<CommandTemplate> chained = ()-> chainSupplier(method, template);
+		CompiledTemplate.Call call = compiled == null? null : compiled.find(CompiledTemplate.signature(method));
+		Supplier<CommandTemplate> chained = call == null? ()-> chainSupplier(method, template)
+				: ()-> callSupplier(call, template);
 		parse(chained, subbo).build(); //We need to go deeper
 	}
 	
@@ -109,16 +130,25 @@ public class AnnotatedCommandParser {
 		return (CommandTemplate) templateGetter.invoke(theOldSupplier.get());
 	}
 	
-	private void parseCommand(Method method, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
+	@SneakyThrows
+	private CommandTemplate callSupplier(CompiledTemplate.Call call, Supplier<CommandTemplate> theOldSupplier) {
+		//Same as above, minus the reflection
+		return (CommandTemplate) call.call(theOldSupplier.get(), null, Collections.emptyList(), 0);
+	}
+	
+	private void parseCommand(Method method, CompiledTemplate compiled, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
 		if(method.getReturnType() != Void.TYPE) return;
 		if(method.getName().equals("invoke")) throw new IllegalArgumentException("Don't annotate your invoke() methods. The method name is reserved!");
 		
 		var subbo = constructSubBuilder(method, acb);
-		parseCommandMethod(method, template, subbo);
+		parseCommandMethod(method, compiled, template, subbo);
 		subbo.build();
 	}
 
-	private void parseCommandMethod(Method method, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
+	private void parseCommandMethod(Method method, CompiledTemplate compiled, Supplier<CommandTemplate> template, AtlasCommandBuilder acb) {
+		if(method.isAnnotationPresent(Async.class)) acb.async();
+		if(method.isAnnotationPresent(Audit.class)) acb.audit();
+		
 		var flagsAnno = method.getAnnotation(Flag.List.class);
 		if(flagsAnno != null) for(Flag flag : flagsAnno.value()) addFlag(acb, flag);
 		else if(method.isAnnotationPresent(Flag.class)) addFlag(acb, method.getAnnotation(Flag.class));
@@ -129,15 +159,12 @@ public class AnnotatedCommandParser {
 		for (int i = 0; i < params.length; i++) {
 			var param = params[i];
 			var c = param.getType();
-			Atlas.get().getLogger().info("Param " + i + " in method " + method.getName() + " has type " + c);
 			
 			if(i == 0) {
 				//The first argument MIGHT be a sender argument, and often is
 				//but it does not necessarily NEED to be... thus we check
 				//If a SenderTemplate is registered, we go forward
 				if(ParameterType.senderTypeExists(c)) {
-					Atlas.get().getLogger().info("Method " + method.getName() + " for cmd " + acb.mainCommand() +
-							" wants sender type: " + ParameterType.getCustomType(c).getTargetType());
 					acb.requiresSender(c);
 					continue;
 				} else if( Sender.class.isAssignableFrom(c)) {
@@ -185,47 +212,29 @@ public class AnnotatedCommandParser {
 			}
 		}
 		
-		makeCommandDoStuff(template, acb, method, wantsSenderAsFirstArg);
+		makeCommandDoStuff(template, compiled, acb, method, wantsSenderAsFirstArg);
 	}
 
-	private void makeCommandDoStuff(Supplier<CommandTemplate> template, AtlasCommandBuilder acb, Method method, boolean wantsCommandSenderAsFirstArg) {
+	private void makeCommandDoStuff(Supplier<CommandTemplate> template, CompiledTemplate compiled, AtlasCommandBuilder acb, Method method, boolean wantsCommandSenderAsFirstArg) {
+		CommandInvoker.SenderMode mode = acb.requiresSender()? CommandInvoker.SenderMode.RESOLVED_SENDER
+				: wantsCommandSenderAsFirstArg? CommandInvoker.SenderMode.SENDER : CommandInvoker.SenderMode.NONE;
+		CompiledTemplate.Call call = compiled == null? null : compiled.find(CompiledTemplate.signature(method));
+		CommandInvoker invoker = call == null? CommandInvoker.of(method, mode) : CommandInvoker.compiled(call, mode);
+		
 		//Make command actually do stuff
 		acb.payload(rc->{
 			try {
 				CommandTemplate t = template.get();
 				t.setRanCommand(rc);
-				Object[] args = rc.getArgResults().toArray();
-
-				if(acb.requiresSender()) {
-					Object[] newArgs = insertFirst(args, rc.getResolvedSender());
-					method.invoke(t, newArgs);
-				} else if (wantsCommandSenderAsFirstArg) {
-					Object[] newArgs = insertFirst(args, rc.getSender());
-					method.invoke(t, newArgs);
-				}else {
-					method.invoke(t, args);
-				}
-			} catch (InvocationTargetException ite) {
-				if(ite.getCause() instanceof RanCommand.CmdParserException) {
-					rc.error(Component.text().content(ite.getCause().getMessage()).asComponent());
-				} else {
-					ite.printStackTrace();
-					rc.error(Component.text().content("An unhandled exception occurred. Contact a developer.").asComponent());
-				}
-			} catch (Exception e) {
-				e.printStackTrace();
+				invoker.invoke(t, rc);
+			} catch (RanCommand.CmdParserException e) {
+				rc.error(Component.text().content(e.getMessage()).asComponent());
+			} catch (Throwable t) {
+				t.printStackTrace();
 				rc.error(Component.text().content("An unhandled exception occurred. Contact a developer.").asComponent());
 			}
 		});
 	}
-
-	
-	private Object[] insertFirst(Object[] args, Object toAdd) {
-		Object[] newArgs = new Object[args.length+1];
-		System.arraycopy(args, 0, newArgs, 1, args.length);
-		newArgs[0] = toAdd;
-		return newArgs;
-	}
 	
 	private void addFlag(AtlasCommandBuilder acb, Flag flag) {
 		ArgBuilder flarg;
@@ -1,6 +1,5 @@
 package com.dndcraft.atlas.command;
 
-import com.dndcraft.atlas.Atlas;
 import com.dndcraft.atlas.command.brigadier.TooltipProvider;
 import com.dndcraft.atlas.util.TimeUtil;
 import com.google.common.primitives.Doubles;
@@ -82,6 +81,7 @@ public class ArgBuilder {
 		CmdArg<Integer> arg = build(Integer.class);
 		arg.setMapper(Ints::tryParse);
 		arg.setBrigadierType(IntegerArgumentType.integer());
+		arg.setBrigadierValue(true);
 		return arg;
 	}
 	
@@ -127,6 +127,7 @@ public class ArgBuilder {
 		CmdArg<Double> arg = build(Double.class);
 		arg.setMapper(Doubles::tryParse);
 		arg.setBrigadierType(DoubleArgumentType.doubleArg());
+		arg.setBrigadierValue(true);
 		return arg;
 	}
 	
@@ -154,6 +155,7 @@ public class ArgBuilder {
 		CmdArg<Float> arg = build(Float.class);
 		arg.setMapper(Floats::tryParse);
 		arg.setBrigadierType(FloatArgumentType.floatArg());
+		arg.setBrigadierValue(true);
 		return arg;
 	}
 	
@@ -236,6 +238,7 @@ public class ArgBuilder {
 			else return null;
 		});
 		arg.setBrigadierType(BoolArgumentType.bool());
+		arg.setBrigadierValue(true);
 		return command;
 	}
 	
@@ -321,8 +324,6 @@ public class ArgBuilder {
 	}
 
 	private <T> CmdArg<T> build(Class<T> clazz){
-		Atlas.get().getLogger().info("Building arg for class: " + clazz.getSimpleName() + " for command: " + command.mainCommand());
-		
 		CmdArg<T> arg = new CmdArg<>(name, defaultInput, description, errorMessage);
 		if(flag == null) command.addArg(arg);
 		else flag.setArg(arg);
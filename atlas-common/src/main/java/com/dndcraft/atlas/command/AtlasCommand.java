@@ -29,6 +29,16 @@ public class AtlasCommand {
 
     @Getter(AccessLevel.NONE) Consumer<RanCommand> payload;
 
+    //Parse and run on the Atlas worker pool rather than the calling thread
+    boolean async;
+
+    //Per sender limits on running and tab completing this command, null when unlimited
+    RateLimit rateLimit;
+    RateLimit completionLimit;
+
+    //Every invocation is recorded in the CommandAudit log
+    boolean audited;
+
     void execute(RanCommand rc) {
         payload.accept(rc);
     }
@@ -81,7 +91,7 @@ public class AtlasCommand {
                 .findAny().orElse(null);
     }
 
-    private int minArgs() {
+    int minArgs() {
         int i = 0;
         for(val arg : args) {
             if(arg.hasDefaultInput()) return i;
@@ -91,7 +101,7 @@ public class AtlasCommand {
         return i;
     }
 
-    private int maxArgs() {
+    int maxArgs() {
         int s = args.size();
         if(s > 0 && args.get(s-1) instanceof JoinedArg) return 255;
         else if(s > 0 && args.get(s-1) instanceof ArrayArgs) return 255;
@@ -38,6 +38,11 @@ public class AtlasCommandBuilder {
 	boolean noMoreArgs = false; //When an unity argument is used
 	boolean buildHelpFile = true;
 	boolean useFlags = true;
+	boolean async = false;
+	boolean audit = false;
+	
+	private RateLimit rateLimit = null;
+	private RateLimit completionLimit = null;
 	
 	
 	public AtlasCommandBuilder(Consumer<AtlasCommand> registration, Command command) {
@@ -129,7 +134,7 @@ public class AtlasCommandBuilder {
 			senderType = ParameterType.getCustomType(senderClass);
 			
 			if(useFlags && (senderType.mapper() != null || senderType.mapperWithSender() != null) ) {
-				Atlas.get().getLogger().info("Sender can also be mapped by means of a 'sudo' flag");
+				//Sender can also be mapped by means of a 'sudo' flag
 				ArgBuilder b = CmdFlag.make(this, "sudo", "tythan.sudo", new String[0]);
 				b.description("Sudo another player.");
 				b.asType(senderType.getTargetType());
@@ -141,6 +146,43 @@ public class AtlasCommandBuilder {
 		return this;
 	}
 	
+	/**
+	 * Resolves the arguments and runs the payload on the Atlas worker pool instead of the server thread.
+	 * Use RanCommand#sync to get back onto the server thread from the payload.
+	 */
+	public AtlasCommandBuilder async() {
+		async = true;
+		return this;
+	}
+	
+	/**
+	 * Limits how often each sender may run this command, rejecting them before any argument is parsed
+	 * @param perSecond how many runs per second a sender earns back
+	 * @param burst how many runs a sender may make back to back, 0 for one second's worth
+	 */
+	public AtlasCommandBuilder rateLimit(double perSecond, int burst) {
+		rateLimit = new RateLimit(perSecond, burst);
+		return this;
+	}
+	
+	/**
+	 * Limits how often each sender gets tab completions for this command, they get none while limited
+	 * @param perSecond how many completions per second a sender earns back
+	 * @param burst how many completions a sender may request back to back, 0 for one second's worth
+	 */
+	public AtlasCommandBuilder completionRateLimit(double perSecond, int burst) {
+		completionLimit = new RateLimit(perSecond, burst);
+		return this;
+	}
+	
+	/**
+	 * Records every invocation of this command, who ran it with what and how it went, see CommandAudit
+	 */
+	public AtlasCommandBuilder audit() {
+		audit = true;
+		return this;
+	}
+	
 	public AtlasCommandBuilder noHelp() {
 		buildHelpFile = false;
 		return this;
@@ -167,7 +209,11 @@ public class AtlasCommandBuilder {
 				Collections.unmodifiableList(args),
 				Collections.unmodifiableList(flags),
 				Collections.unmodifiableList(subCommands),
-				payload);
+				payload,
+				async,
+				rateLimit,
+				completionLimit,
+				audit);
 		
 		if(built.isInvokeOverload() && !built.getSubCommands().isEmpty())
 			throw new IllegalStateException("Found subcommands on an invoke overload for " + this.parentBuilder.mainCommand);
@@ -0,0 +1,22 @@
+package com.dndcraft.atlas.command;
+
+import java.util.List;
+
+/**
+ * Where the {@link CommandAudit} writer thread puts audit entries, see {@link GzipFileAuditSink} and {@link SQLAuditSink}.
+ * Only ever called from that one thread, so implementations needn't be thread safe.
+ * @Author Nickrocky
+ */
+public interface AuditSink {
+
+	/**
+	 * Writes a batch of entries, oldest first
+	 * @throws Exception to have the same batch retried later
+	 */
+	void write(List<CommandAudit.Entry> batch) throws Exception;
+
+	/**
+	 * Called once after the last batch was written
+	 */
+	default void close() throws Exception {}
+}
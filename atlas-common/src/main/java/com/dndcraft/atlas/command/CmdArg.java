@@ -3,6 +3,7 @@ package com.dndcraft.atlas.command;
 import com.dndcraft.atlas.agnostic.Sender;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -27,6 +28,8 @@ public class CmdArg<T> {
 	
 	@SuppressWarnings("rawtypes")
 	@Setter private ArgumentType brigadierType = StringArgumentType.word();
+	//Whether what the brigadierType parses is already the value of this argument, so it needs no mapping from string
+	@Setter(AccessLevel.PACKAGE) private boolean brigadierValue = false;
 	
 	private final String name, defaultInput, description;
 	private final Component errorMessage;
@@ -47,6 +50,14 @@ public class CmdArg<T> {
 		return mapped;
 	}
 	
+	@SuppressWarnings("unchecked")
+	T resolveParsed(Object parsed) {
+		T value = (T) parsed;
+		if(value == null || !filter.test(value)) return null;
+		
+		return value;
+	}
+	
 	void completeMe(String... opts) {
 		setCompleter( new CommandCompleter(()-> Arrays.asList(opts)) );
 	}
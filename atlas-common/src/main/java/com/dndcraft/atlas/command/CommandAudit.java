@@ -0,0 +1,199 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.Atlas;
+import com.dndcraft.atlas.agnostic.Sender;
+import lombok.Value;
+import org.apache.commons.lang.Validate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit log of who ran which audited command (see AtlasCommandBuilder#audit or @Audit), with what and how it went.
+ * Recording an invocation only builds an entry and claims a slot in a lock-free ring buffer, a background thread
+ * drains it in batches into an {@link AuditSink}, so no command ever waits on a file or database.
+ * Off until {@link #start(AuditSink)}, while off it costs one volatile read per audited invocation.
+ * If the sink can't keep up and the buffer of {@value #CAPACITY} entries fills, new entries are dropped and counted.
+ * @Author Nickrocky
+ */
+public final class CommandAudit {
+	public static final int CAPACITY = 8192; //Power of two
+	private static final int BATCH_SIZE = 512;
+	private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+	private static final Ring RING = new Ring(CAPACITY);
+	private static final AtomicLong DROPPED = new AtomicLong();
+	private static volatile AuditSink sink = null;
+	private static volatile Thread writer = null;
+
+	private CommandAudit() {}
+
+	/**
+	 * Starts writing audit entries to the sink on a background thread
+	 * @throws IllegalStateException if auditing was already started
+	 */
+	public static synchronized void start(AuditSink sink) {
+		Validate.notNull(sink, "Audit sink can't be null");
+		if(CommandAudit.sink != null) throw new IllegalStateException("Command auditing was already started");
+		CommandAudit.sink = sink;
+		writer = new Thread(() -> writeLoop(sink), "Atlas-Command-Audit");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Stops auditing, writes whatever was still buffered and closes the sink. Call on shutdown.
+	 */
+	public static synchronized void stop() {
+		if(sink == null) return;
+		sink = null; //The writer notices, drains what's left and closes its sink
+		LockSupport.unpark(writer);
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writer = null;
+	}
+
+	public static boolean isEnabled() {
+		return sink != null;
+	}
+
+	/**
+	 * @return how many entries were dropped since the last time it was reported, because the buffer was full
+	 */
+	public static long getDropped() {
+		return DROPPED.get();
+	}
+
+	static void record(RanCommand rc, long nanos, String outcome) {
+		if(sink == null) return;
+
+		//Stringified right away, the resolved objects may well change after the command ran
+		List<String> args = new ArrayList<>(rc.getArgResults().size());
+		for(Object arg : rc.getArgResults()) args.add(String.valueOf(arg));
+		Map<String, String> flags = rc.getFlags().isEmpty()? Collections.emptyMap() : new HashMap<>(rc.getFlags().size());
+		rc.getFlags().forEach((name, value) -> flags.put(name, String.valueOf(value)));
+
+		offer(new Entry(System.currentTimeMillis(), rc.getSender().getName(), rc.getUsedAlias(), args, flags,
+				TimeUnit.NANOSECONDS.toMicros(nanos), outcome));
+	}
+
+	/**
+	 * For invocations turned away before there was a RanCommand, like missing permissions
+	 */
+	static void record(Sender sender, String usedAlias, String outcome) {
+		if(sink == null) return;
+		offer(new Entry(System.currentTimeMillis(), sender.getName(), usedAlias, Collections.emptyList(), Collections.emptyMap(), 0, outcome));
+	}
+
+	private static void offer(Entry entry) {
+		long buffered = RING.offer(entry);
+		if(buffered < 0) DROPPED.incrementAndGet();
+		else if(buffered == CAPACITY / 2) LockSupport.unpark(writer); //Busy, don't let it sleep out its interval
+	}
+
+	private static void writeLoop(AuditSink target) {
+		List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+		boolean running = true;
+		while(running) {
+			running = sink == target; //Read before draining, so the last round picks up everything recorded before stop()
+
+			boolean written = true;
+			while(written && (!batch.isEmpty() || RING.drain(batch, BATCH_SIZE) > 0)) {
+				written = write(target, batch);
+				if(written) batch.clear();
+			}
+
+			long dropped = DROPPED.getAndSet(0);
+			if(dropped > 0) Atlas.get().getLogger().warning("[Atlas] Dropped " + dropped + " command audit entries, the audit sink can't keep up");
+
+			if(running) LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+		}
+
+		if(!batch.isEmpty()) Atlas.get().getLogger().severe("[Atlas] Lost " + batch.size() + " command audit entries on shutdown");
+		try {
+			target.close();
+		} catch (Exception e) {
+			Atlas.get().getLogger().severe("[Atlas] Could not close the command audit sink: " + e.getMessage());
+		}
+	}
+
+	//A failed batch is kept and retried next round, meanwhile the buffer fills up and new entries get dropped
+	private static boolean write(AuditSink target, List<Entry> batch) {
+		try {
+			target.write(batch);
+			return true;
+		} catch (Exception e) {
+			Atlas.get().getLogger().severe("[Atlas] Could not write " + batch.size() + " command audit entries, retrying later: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Bounded ring buffer for any number of recording threads and the single writer thread.
+	 * Recorders claim a slot by moving the tail with a CAS and then publish their entry into it,
+	 * the writer takes entries from the head until it runs into a slot that's empty or claimed but not yet published.
+	 */
+	private static final class Ring {
+		private final AtomicReferenceArray<Entry> slots;
+		private final int mask;
+		private final AtomicLong tail = new AtomicLong(); //Next slot to claim
+		private final AtomicLong head = new AtomicLong(); //Next slot to drain, only moved by the writer
+
+		private Ring(int capacity) {
+			Validate.isTrue(Integer.bitCount(capacity) == 1, "Ring capacity must be a power of two");
+			this.slots = new AtomicReferenceArray<>(capacity);
+			this.mask = capacity - 1;
+		}
+
+		/**
+		 * @return how many entries were buffered before this one, or -1 if the buffer was full
+		 */
+		long offer(Entry entry) {
+			long claimed, buffered;
+			do {
+				claimed = tail.get();
+				buffered = claimed - head.get();
+				if(buffered >= slots.length()) return -1;
+			} while(!tail.compareAndSet(claimed, claimed + 1));
+
+			slots.lazySet((int) claimed & mask, entry);
+			return buffered;
+		}
+
+		int drain(List<Entry> into, int max) {
+			long from = head.get();
+			int drained = 0;
+			while(drained < max) {
+				int slot = (int) (from + drained) & mask;
+				Entry entry = slots.get(slot);
+				if(entry == null) break;
+				slots.lazySet(slot, null); //Emptied before the head moves past it, so it's free once a recorder sees the new head
+				into.add(entry);
+				drained++;
+			}
+			head.lazySet(from + drained);
+			return drained;
+		}
+	}
+
+	@Value
+	public static class Entry {
+		long timestamp;
+		String sender;
+		String command;
+		List<String> args;
+		Map<String, String> flags;
+		long micros;
+		String outcome;
+	}
+}
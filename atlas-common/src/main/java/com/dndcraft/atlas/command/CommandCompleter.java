@@ -1,11 +1,18 @@
 package com.dndcraft.atlas.command;
 
 import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.util.AtlasWorkers;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.Value;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -13,8 +20,11 @@ import java.util.stream.Collectors;
 
 public class CommandCompleter {
 	public static final CommandCompleter NULL_COMPLETER = new CommandCompleter(($1,$2)-> Collections.emptyList());
+	private static final int MAX_CACHED_RESULTS = 1000;
 	
 	private final BiFunction<Sender, String, ? extends Collection<Suggestion>> suggestions;
+	@Getter private final boolean async;
+	private final Cache<String, Collection<Suggestion>> cache;
 	
 	public static CommandCompleter suggestWithTooltips(Supplier<? extends Collection<Suggestion>> supplier) {
 		return suggestWithTooltips(($1,$2)->supplier.get() );
@@ -29,26 +39,71 @@ public class CommandCompleter {
 	}
 	
 	public CommandCompleter(Supplier<? extends Collection<String>> supplier) {
-		suggestions = ($1,$2) -> asSuggestions(supplier.get());
+		this(($1,$2) -> asSuggestions(supplier.get()), false);
 	}
 	
 	public CommandCompleter(Function<Sender, ? extends Collection<String>> function) {
-		suggestions = (s,$)-> asSuggestions(function.apply(s));
+		this((s,$)-> asSuggestions(function.apply(s)), false);
 	}
 	
 	private CommandCompleter(BiFunction<Sender, String, ? extends Collection<Suggestion>> function, boolean unused) {
+		this(function, false, null);
+	}
+	
+	private CommandCompleter(BiFunction<Sender, String, ? extends Collection<Suggestion>> function, boolean async, Cache<String, Collection<Suggestion>> cache) {
 		this.suggestions = function;
+		this.async = async;
+		this.cache = cache;
 	}
 	
 	public CommandCompleter(BiFunction<Sender, String, ? extends Collection<String>> function) {
-		suggestions = (s,i)->asSuggestions(function.apply(s, i));
+		this((s,i)->asSuggestions(function.apply(s, i)), false);
+	}
+	
+	/**
+	 * Makes a copy of this completer that computes its suggestions on the Atlas worker pool when asked for them through
+	 * {@link #suggestAsync(Sender, String)}, for completers that do blocking work like database lookups.
+	 * @ApiNote Only Brigadier suggestions go through suggestAsync. The platform's own tab completion
+	 * (Bukkit's onTabComplete, used by the console among others) has to answer right away, so it still calls
+	 * {@link #suggest(Sender, String)} on the calling thread. Pair this with {@link #cached(Duration)} to soften that.
+	 */
+	public CommandCompleter async() {
+		return new CommandCompleter(suggestions, true, cache);
+	}
+	
+	/**
+	 * Makes a copy of this completer that remembers its suggestions per sender and input for a while,
+	 * so expensive completers don't run again on every keystroke
+	 * @param ttl how long suggestions are remembered, keep this short
+	 */
+	public CommandCompleter cached(Duration ttl) {
+		return new CommandCompleter(suggestions, async, CacheBuilder.newBuilder()
+				.expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+				.maximumSize(MAX_CACHED_RESULTS)
+				.<String, Collection<Suggestion>>build());
 	}
 	
 	public Collection<Suggestion> suggest(Sender sender, String input){
-		return suggestions.apply(sender, input);
+		if(cache == null) return suggestions.apply(sender, input);
+		
+		String key = sender.getName() + '\0' + input;
+		Collection<Suggestion> cached = cache.getIfPresent(key);
+		if(cached != null) return cached;
+		
+		Collection<Suggestion> result = suggestions.apply(sender, input);
+		cache.put(key, result);
+		return result;
+	}
+	
+	/**
+	 * @return the suggestions, computed on the Atlas worker pool if this completer is async or right away otherwise
+	 */
+	public CompletableFuture<Collection<Suggestion>> suggestAsync(Sender sender, String input){
+		if(!async) return CompletableFuture.completedFuture(suggest(sender, input));
+		return CompletableFuture.supplyAsync(()->suggest(sender, input), AtlasWorkers.pool());
 	}
 	
-	private Collection<Suggestion> asSuggestions(Collection<String> input){
+	private static Collection<Suggestion> asSuggestions(Collection<String> input){
 		return input.stream().map(Suggestion::new).collect(Collectors.toList());
 	}
 	
@@ -64,5 +119,12 @@ public class CommandCompleter {
 		public boolean hasTooltip() {
 			return tooltip != null;
 		}
+		
+		/**
+		 * Case insensitive prefix check that doesn't lowercase (and copy) the literal or the input
+		 */
+		public boolean matches(String input) {
+			return literal.regionMatches(true, 0, input, 0, input.length());
+		}
 	}
 }
@@ -0,0 +1,125 @@
+package com.dndcraft.atlas.command;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * An AtlasCommand tree compiled for lookups, so resolving which (sub)command a line of input wants
+ * is a hash lookup or array index per level instead of a scan over every subcommand.
+ * Compiled once per registered command by the AgnosticExecutor, the AtlasCommand tree must be fully built by then.
+ */
+final class CommandDispatch {
+	private static final CommandDispatch[] NONE = new CommandDispatch[0];
+
+	@Getter private final AtlasCommand command;
+	@Getter private final int minArgs;
+	@Getter private final int maxArgs;
+	@Getter private final HelpCommand help;
+	@Getter private final CommandMetrics metrics;
+
+	//Every subcommand, in the order they were registered. Used for completions
+	private final CommandDispatch[] subCommands;
+	//Lowercase alias -> subcommands using it. More than one only when their arg ranges don't overlap
+	private final Map<String, CommandDispatch[]> byAlias = new HashMap<>();
+	//'-' + flag alias -> flag, looked up with the lowercased input token
+	@Getter private final Map<String, CmdFlag> flagAliases = new HashMap<>();
+	//Sorted first argument count of each run of counts that the same invoke overloads accept
+	private final int[] overloadRunStarts;
+	//The invoke overloads accepting the run of argument counts starting at the same index. More than one is ambiguous
+	private final CommandDispatch[][] overloadRuns;
+
+	static CommandDispatch compile(AtlasCommand command) {
+		return new CommandDispatch(command, "/" + command.getMainCommand());
+	}
+
+	private CommandDispatch(AtlasCommand command, String path) {
+		this.command = command;
+		this.metrics = CommandMetrics.of(path);
+		this.minArgs = command.minArgs();
+		this.maxArgs = command.maxArgs();
+
+		for(CmdFlag flag : command.getFlags()) {
+			for(String alias : flag.getAliases()) flagAliases.put('-' + alias, flag);
+		}
+
+		List<AtlasCommand> subs = command.getSubCommands();
+		subCommands = new CommandDispatch[subs.size()];
+		HelpCommand foundHelp = null;
+		Map<String, List<CommandDispatch>> aliases = new HashMap<>();
+		List<CommandDispatch> overloads = new ArrayList<>();
+		TreeSet<Integer> runStarts = new TreeSet<>();
+
+		for(int i = 0; i < subs.size(); i++) {
+			AtlasCommand sub = subs.get(i);
+			CommandDispatch compiled = new CommandDispatch(sub, sub.isInvokeOverload()? path : path + ' ' + sub.getMainCommand());
+			subCommands[i] = compiled;
+
+			if(foundHelp == null && sub instanceof HelpCommand) foundHelp = (HelpCommand) sub;
+			if(sub.isInvokeOverload()) {
+				overloads.add(compiled);
+				runStarts.add(compiled.minArgs);
+				runStarts.add(compiled.maxArgs + 1);
+			} else {
+				for(String alias : sub.getAliases()) aliases.computeIfAbsent(alias, $ -> new ArrayList<>()).add(compiled);
+			}
+		}
+
+		help = foundHelp;
+		aliases.forEach((alias, list) -> byAlias.put(alias, list.toArray(NONE)));
+
+		//One entry per run instead of per count, a JoinedArg overload alone would take 256 of those
+		overloadRunStarts = runStarts.stream().mapToInt(Integer::intValue).toArray();
+		overloadRuns = new CommandDispatch[overloadRunStarts.length][];
+		for(int i = 0; i < overloadRunStarts.length; i++) {
+			int n = overloadRunStarts[i];
+			overloadRuns[i] = overloads.stream().filter(o -> o.fitsArgSize(n)).toArray(CommandDispatch[]::new);
+		}
+	}
+
+	/**
+	 * Finds the subcommand the given arguments should go to, if any
+	 * @param args the remaining arguments, the first of which may be a subcommand alias
+	 * @return the matching subcommand, or null if the arguments are meant for this command
+	 */
+	CommandDispatch wantsSubCommand(List<String> args) {
+		//Check if one of the overloads matches better based on arg count
+		int size = args.size();
+		CommandDispatch[] overloads = overloadsFor(size);
+		if(overloads.length > 1) throw new IllegalStateException("Invoke overload ambiguity: Same arg size took multiple args!!");
+		else if(overloads.length == 1) return overloads[0];
+
+		//Otherwise, Check for literals that match a subcommand
+		if(size == 0) return null;
+		CommandDispatch[] matches = byAlias.get(args.get(0).toLowerCase());
+		if(matches == null) return null;
+		else if(matches.length == 1) return matches[0];
+
+		int s = size - 1;
+		for(CommandDispatch match : matches) {
+			if(match.fitsArgSize(s)) return match;
+		}
+
+		//Fallback, no subcommand wants the amount of given arguments
+		return null;
+	}
+
+	private CommandDispatch[] overloadsFor(int argSize) {
+		int i = Arrays.binarySearch(overloadRunStarts, argSize);
+		if(i < 0) i = -i - 2; //The run starting before argSize, if any
+		return i < 0? NONE : overloadRuns[i];
+	}
+
+	CommandDispatch[] getSubCommands() {
+		return subCommands;
+	}
+
+	boolean fitsArgSize(int argSize) {
+		return argSize >= minArgs && argSize <= maxArgs;
+	}
+}
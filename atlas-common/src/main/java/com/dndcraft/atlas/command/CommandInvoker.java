@@ -0,0 +1,81 @@
+package com.dndcraft.atlas.command;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Calls an annotated command method with the arguments a RanCommand resolved, built once when the command is parsed.
+ * Up to 6 parameters the method handle is called through invokeExact with the arguments read straight from the RanCommand,
+ * so there's no Object[] copying and exceptions come out unwrapped. Longer methods fall back to a spreader.
+ */
+@FunctionalInterface
+interface CommandInvoker {
+	void invoke(CommandTemplate template, RanCommand rc) throws Throwable;
+
+	enum SenderMode {
+		/** The method only takes command arguments */
+		NONE,
+		/** The first parameter is the raw Sender */
+		SENDER,
+		/** The first parameter is the sender mapped through its ParameterType */
+		RESOLVED_SENDER;
+
+		Object parameter(RanCommand rc, int i) {
+			if(this == NONE) return rc.getArgResults().get(i);
+			if(i > 0) return rc.getArgResults().get(i - 1);
+			return this == SENDER ? rc.getSender() : rc.getResolvedSender();
+		}
+	}
+
+	/**
+	 * Calls the method through the direct call an annotation processor generated for it, see {@link CompiledTemplate}
+	 */
+	static CommandInvoker compiled(CompiledTemplate.Call call, SenderMode mode) {
+		switch(mode) {
+			case SENDER: return (t, rc) -> call.call(t, rc.getSender(), rc.getArgResults(), 0);
+			case RESOLVED_SENDER: return (t, rc) -> call.call(t, rc.getResolvedSender(), rc.getArgResults(), 0);
+			default: return (t, rc) -> {
+				List<Object> args = rc.getArgResults();
+				call.call(t, args.isEmpty()? null : args.get(0), args, 1);
+			};
+		}
+	}
+
+	static CommandInvoker of(Method method, SenderMode mode) {
+		MethodHandle handle;
+		try {
+			method.trySetAccessible();
+			handle = MethodHandles.lookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Cannot access command method " + method.getName() + ", make sure it and its class are public", e);
+		}
+
+		int n = method.getParameterCount();
+		//Receiver + every parameter as Object, unboxing for primitives happens inside the handle
+		MethodHandle mh = handle.asType(MethodType.genericMethodType(n + 1).changeReturnType(void.class));
+
+		//Block lambdas: as an expression lambda body invokeExact would be typed to return Object, which the handle doesn't
+		switch(n) {
+			case 0: return (t, rc) -> { mh.invokeExact((Object) t); };
+			case 1: return (t, rc) -> { mh.invokeExact((Object) t, mode.parameter(rc, 0)); };
+			case 2: return (t, rc) -> { mh.invokeExact((Object) t, mode.parameter(rc, 0), mode.parameter(rc, 1)); };
+			case 3: return (t, rc) -> { mh.invokeExact((Object) t, mode.parameter(rc, 0), mode.parameter(rc, 1), mode.parameter(rc, 2)); };
+			case 4: return (t, rc) -> { mh.invokeExact((Object) t, mode.parameter(rc, 0), mode.parameter(rc, 1), mode.parameter(rc, 2),
+					mode.parameter(rc, 3)); };
+			case 5: return (t, rc) -> { mh.invokeExact((Object) t, mode.parameter(rc, 0), mode.parameter(rc, 1), mode.parameter(rc, 2),
+					mode.parameter(rc, 3), mode.parameter(rc, 4)); };
+			case 6: return (t, rc) -> { mh.invokeExact((Object) t, mode.parameter(rc, 0), mode.parameter(rc, 1), mode.parameter(rc, 2),
+					mode.parameter(rc, 3), mode.parameter(rc, 4), mode.parameter(rc, 5)); };
+			default:
+				MethodHandle spread = mh.asSpreader(Object[].class, n);
+				return (t, rc) -> {
+					Object[] params = new Object[n];
+					for(int i = 0; i < n; i++) params[i] = mode.parameter(rc, i);
+					spread.invokeExact((Object) t, params);
+				};
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.util.LatencyHistogram;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation counts, parse and execute latency, and failures for a single command path like "/guild invite".
+ * Always on, recording is a couple of LongAdder increments so it's fine to leave running in production.
+ * Invoke overloads share the path of the command they overload. See /atlas commands for the in game report.
+ * @Author Nickrocky
+ */
+@Getter
+public final class CommandMetrics {
+	private static final Map<String, CommandMetrics> METRICS = new ConcurrentHashMap<>();
+
+	private final String path;
+	private final LatencyHistogram parseLatency = new LatencyHistogram();
+	private final LatencyHistogram executeLatency = new LatencyHistogram();
+	@Getter(AccessLevel.NONE) private final LongAdder invocations = new LongAdder();
+	@Getter(AccessLevel.NONE) private final LongAdder failures = new LongAdder();
+	@Getter(AccessLevel.NONE) private final Map<String, LongAdder> exceptions = new ConcurrentHashMap<>();
+
+	private CommandMetrics(String path) {
+		this.path = path;
+	}
+
+	/**
+	 * @param path the command path, starting with a slash and using the main name of every (sub)command
+	 * @return the metrics for that path, made on first use
+	 */
+	public static CommandMetrics of(String path) {
+		return METRICS.computeIfAbsent(path.toLowerCase(), CommandMetrics::new);
+	}
+
+	/**
+	 * @return the metrics of every command path that has been invoked, most total execution time first
+	 */
+	public static List<CommandMetrics> all() {
+		List<CommandMetrics> result = new ArrayList<>();
+		for(CommandMetrics metrics : METRICS.values()) {
+			if(metrics.getInvocations() > 0) result.add(metrics);
+		}
+		result.sort(Comparator.comparingLong((CommandMetrics m) -> m.getExecuteLatency().getTotalNanos()).reversed());
+		return result;
+	}
+
+	public static void resetAll() {
+		METRICS.values().forEach(CommandMetrics::reset);
+	}
+
+	void recordParse(long nanos, boolean failed) {
+		invocations.increment();
+		parseLatency.record(nanos);
+		if(failed) failures.increment();
+	}
+
+	void recordExecute(long nanos, Throwable failure) {
+		executeLatency.record(nanos);
+		if(failure == null) return;
+		if(failure instanceof RanCommand.CmdParserException) failures.increment();
+		else exceptions.computeIfAbsent(failure.getClass().getSimpleName(), $ -> new LongAdder()).increment();
+	}
+
+	public long getInvocations() {
+		return invocations.sum();
+	}
+
+	/**
+	 * @return how often the command was rejected because of bad input or a failed validation
+	 */
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	/**
+	 * @return how often the command threw something it didn't handle
+	 */
+	public long getExceptionCount() {
+		long total = 0;
+		for(LongAdder count : exceptions.values()) total += count.sum();
+		return total;
+	}
+
+	/**
+	 * @return unhandled exception counts by exception class name
+	 */
+	public Map<String, Long> getExceptions() {
+		Map<String, Long> result = new TreeMap<>();
+		exceptions.forEach((type, count) -> result.put(type, count.sum()));
+		return Collections.unmodifiableMap(result);
+	}
+
+	public void reset() {
+		parseLatency.reset();
+		executeLatency.reset();
+		invocations.reset();
+		failures.reset();
+		exceptions.clear();
+	}
+}
@@ -14,6 +14,13 @@ public abstract class CommandTemplate implements CommandHandle{
         ranCommand.getCommand().getHelp().execute(ranCommand);
     }
 
+    /**
+     * Runs a task on the server thread, for @Async commands that need to touch the world after their blocking work
+     */
+    protected void sync(Runnable task) {
+        ranCommand.sync(task);
+    }
+
     @Override
     public Sender getSender() {
         return ranCommand.getSender();
@@ -0,0 +1,88 @@
+package com.dndcraft.atlas.command;
+
+import lombok.Getter;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in tracing of every invocation of a command and its subcommands, with parse and execute timings.
+ * Off by default, while off it costs one volatile read per invocation. The last {@value #CAPACITY} invocations
+ * are kept in a ring buffer until someone dumps them, turn it on with /atlas trace enable &lt;command&gt;.
+ * @Author Nickrocky
+ */
+public final class CommandTrace {
+	public static final int CAPACITY = 256;
+	private static final Map<String, CommandTrace> TRACES = new ConcurrentHashMap<>();
+
+	@Getter private final String command;
+	@Getter private volatile boolean enabled = false;
+
+	private final Entry[] entries = new Entry[CAPACITY];
+	private int next = 0;
+	private int size = 0;
+
+	private CommandTrace(String command) {
+		this.command = command;
+	}
+
+	/**
+	 * @param command the name of the root command
+	 * @return the trace of that command, made on first use
+	 */
+	public static CommandTrace of(String command) {
+		return TRACES.computeIfAbsent(command.toLowerCase(), CommandTrace::new);
+	}
+
+	public static Collection<CommandTrace> all() {
+		return Collections.unmodifiableCollection(TRACES.values());
+	}
+
+	public void setEnabled(boolean enabled) {
+		if(enabled && !this.enabled) clear();
+		this.enabled = enabled;
+	}
+
+	void record(RanCommand rc, List<String> input, long parseNanos, long executeNanos, String outcome) {
+		record(new Entry(System.currentTimeMillis(), rc.getSender().getName(), rc.getUsedAlias(), String.join(" ", input),
+				parseNanos, executeNanos, outcome));
+	}
+
+	synchronized void record(Entry entry) {
+		entries[next] = entry;
+		next = (next + 1) % CAPACITY;
+		if(size < CAPACITY) size++;
+	}
+
+	/**
+	 * @return every recorded invocation, oldest first
+	 */
+	public synchronized List<Entry> dump() {
+		List<Entry> result = new ArrayList<>(size);
+		int start = (next - size + CAPACITY) % CAPACITY;
+		for(int i = 0; i < size; i++) result.add(entries[(start + i) % CAPACITY]);
+		return result;
+	}
+
+	public synchronized void clear() {
+		for(int i = 0; i < CAPACITY; i++) entries[i] = null;
+		next = 0;
+		size = 0;
+	}
+
+	@Value
+	public static class Entry {
+		long timestamp;
+		String sender;
+		String alias;
+		String input;
+		long parseNanos;
+		long executeNanos;
+		String outcome;
+	}
+}
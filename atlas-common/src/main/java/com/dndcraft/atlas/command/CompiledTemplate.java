@@ -0,0 +1,51 @@
+package com.dndcraft.atlas.command;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Direct calls into the command methods of a CommandTemplate, generated at compile time by the atlas-processor
+ * annotation processor as a class named after the template plus {@value #SUFFIX}.
+ * It holds one typed {@link Call} per method, a plain call with casts and no argument array, which the
+ * AnnotatedCommandParser uses instead of building a method handle for the method at enable.
+ * Without it the parser falls back to method handles like before.
+ * @Author Nickrocky
+ */
+public interface CompiledTemplate {
+	String SUFFIX = "_AtlasCommands";
+
+	/**
+	 * @param signature the signature of a command method or sub-layer getter, see {@link #signature(Method)}
+	 * @return the direct call to it, or null if it wasn't compiled
+	 */
+	Call find(String signature);
+
+	/**
+	 * @return the name of the method followed by the type names of its parameters, like "ban(org.bukkit.entity.Player,int)"
+	 */
+	static String signature(Method method) {
+		StringBuilder result = new StringBuilder(method.getName()).append('(');
+		Class<?>[] parameters = method.getParameterTypes();
+		for(int i = 0; i < parameters.length; i++) {
+			if(i > 0) result.append(',');
+			result.append(parameters[i].getTypeName());
+		}
+		return result.append(')').toString();
+	}
+
+	/**
+	 * A direct call to one method of the template. The first parameter is passed on its own, so it can be the sender
+	 * without copying the arguments into a new list, the others are read from args starting at from.
+	 */
+	@FunctionalInterface
+	interface Call {
+		/**
+		 * @param template an instance of the template the method was compiled for
+		 * @param first the first parameter, ignored if the method has none
+		 * @param args holds the other parameters, primitives boxed
+		 * @param from the index in args of the second parameter
+		 * @return what the method returned, or null for void methods
+		 */
+		Object call(CommandTemplate template, Object first, List<Object> args, int from) throws Throwable;
+	}
+}
@@ -0,0 +1,125 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.Atlas;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang.Validate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes audit entries as JSON lines into gzipped files named after the day, like commands-2026-10-19.0.jsonl.gz.
+ * A new file is started every day and whenever the current one grows past its maximum size,
+ * only the newest files are kept. Every batch is flushed through to the file, so a crash loses at most the batch being written.
+ * A batch that fails partway is retried into a new file, the one it failed in keeps what got written of it.
+ * @Author Nickrocky
+ */
+public class GzipFileAuditSink implements AuditSink {
+	private static final ObjectMapper JSON = new ObjectMapper();
+	private static final String PREFIX = "commands-";
+	private static final String SUFFIX = ".jsonl.gz";
+	private static final byte[] NEWLINE = {'\n'};
+
+	private final Path folder;
+	private final long maxBytes;
+	private final int maxFiles;
+
+	private LocalDate day = null;
+	private FileChannel channel = null;
+	private OutputStream out = null;
+
+	/**
+	 * Writes into the audit folder in the Atlas data folder, 16MB per file and a month's worth of days
+	 */
+	public GzipFileAuditSink() throws IOException {
+		this(Atlas.get().getDataFolder().toPath().resolve("audit"), 16 * 1024 * 1024, 30);
+	}
+
+	/**
+	 * @param folder where to keep the files
+	 * @param maxBytes the compressed size after which a new file is started
+	 * @param maxFiles how many files to keep, the oldest are deleted
+	 */
+	public GzipFileAuditSink(Path folder, long maxBytes, int maxFiles) throws IOException {
+		Validate.isTrue(maxBytes > 0, "Audit files need a positive maximum size");
+		Validate.isTrue(maxFiles > 0, "Need to keep at least one audit file");
+		this.folder = folder;
+		this.maxBytes = maxBytes;
+		this.maxFiles = maxFiles;
+		Files.createDirectories(folder);
+	}
+
+	@Override
+	public void write(List<CommandAudit.Entry> batch) throws IOException {
+		if(out == null || !LocalDate.now().equals(day) || channel.size() >= maxBytes) rotate();
+
+		try {
+			for(CommandAudit.Entry entry : batch) {
+				out.write(JSON.writeValueAsBytes(entry));
+				out.write(NEWLINE);
+			}
+			out.flush();
+		} catch(IOException e) {
+			//Part of the batch may already be in this file, so the retry goes into a new one instead of after that part
+			try {
+				close();
+			} catch(IOException closing) {
+				e.addSuppressed(closing);
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		OutputStream closing = out;
+		FileChannel closingChannel = channel;
+		out = null; //Whatever happens below, the next write starts a new file
+		channel = null;
+		try {
+			if(closing != null) closing.close(); //Finishes the gzip stream and closes the channel
+		} finally {
+			if(closingChannel != null) closingChannel.close(); //In case finishing the gzip stream failed first
+		}
+	}
+
+	private void rotate() throws IOException {
+		close();
+		day = LocalDate.now();
+
+		//Always a fresh file, appending to one a crash may have cut off would leave a broken gzip stream in the middle
+		Path file;
+		int index = 0;
+		do {
+			file = folder.resolve(PREFIX + day + "." + index++ + SUFFIX);
+		} while(Files.exists(file));
+
+		channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		out = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024, true); //Sync flush, so flush() reaches the file
+		prune();
+	}
+
+	private void prune() throws IOException {
+		List<Path> files;
+		try(Stream<Path> listed = Files.list(folder)) {
+			files = listed.filter(p -> p.getFileName().toString().startsWith(PREFIX) && p.getFileName().toString().endsWith(SUFFIX))
+					.collect(Collectors.toCollection(ArrayList::new));
+		}
+		if(files.size() <= maxFiles) return;
+
+		files.sort(Comparator.comparingLong(p -> p.toFile().lastModified()));
+		for(Path old : files.subList(0, files.size() - maxFiles)) Files.deleteIfExists(old);
+	}
+}
@@ -4,17 +4,27 @@ import com.dndcraft.atlas.Atlas;
 import com.dndcraft.atlas.agnostic.AbstractComponentBuilder;
 import com.dndcraft.atlas.agnostic.Sender;
 import com.dndcraft.atlas.util.AtlasColor;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.primitives.Ints;
+import lombok.Value;
 import lombok.val;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.plain.PlainComponentSerializer;
 
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 
@@ -22,6 +32,11 @@ public class HelpCommand extends AtlasCommand {
 	private static final AtlasColor[] colors = new AtlasColor[] {AtlasColor.AQUA, AtlasColor.DANDELION, AtlasColor.GREEN, AtlasColor.LILAC, AtlasColor.GOLD};
 	private final AtlasCommand parent;
 	
+	//Rendered pages by alias, page and which of the subcommand permissions the sender has
+	private final Cache<PageKey, List<Component>> pages = CacheBuilder.newBuilder().maximumSize(128).build();
+	private volatile String[] gates = null;
+	private volatile int renderedFor = -1; //How many subcommands there were when the cached pages were rendered
+	
 	HelpCommand(AtlasCommand ac) {
 	  super("help",
 	  		Collections.emptySet(),
@@ -31,7 +46,11 @@ public class HelpCommand extends AtlasCommand {
 	  		Arrays.asList(helpPageArg()),
 	  		Collections.emptyList(),
 	  		Collections.emptyList(),
-	  		null);
+	  		null,
+	  		false,
+	  		null,
+	  		null,
+	  		false);
 	  
 	  parent = ac;
 	  
@@ -51,20 +70,58 @@ public class HelpCommand extends AtlasCommand {
 	}
 	
 	public void runHelp(RanCommand c, int page) {
-
+		Sender s = c.getSender();
+		String alias = "/" + c.getUsedAlias();
+		if(alias.endsWith("help")) alias = alias.substring(0, alias.length() - 5);
+		
+		String[] gates = gates();
+		BitSet permissions = new BitSet(gates.length);
+		for(int i = 0; i < gates.length; i++) if(s.hasPermission(gates[i])) permissions.set(i);
+		
+		String used = alias;
+		List<Component> rendered;
+		try {
+			rendered = pages.get(new PageKey(alias, page, permissions), ()->render(s, used, page));
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+		for(Component line : rendered) s.sendMessage(line);
+	}
+	
+	//The distinct permissions of the subcommands, which are all that decides what a sender gets to see
+	private String[] gates() {
+		String[] result = gates;
+		int registered = parent.getSubCommands().size();
+		if(result != null && renderedFor == registered) return result;
+		
+		synchronized(pages) {
+			Set<String> permissions = new LinkedHashSet<>();
+			for(AtlasCommand sub : parent.getSubCommands()) {
+				if(sub != this && StringUtils.isNotEmpty(sub.getPermission())) permissions.add(sub.getPermission());
+			}
+			result = permissions.toArray(new String[0]);
+			if(renderedFor != registered) pages.invalidateAll();
+			renderedFor = registered;
+			gates = result;
+			return result;
+		}
+	}
+	
+	private List<Component> render(Sender s, String alias, int page) {
+		List<Component> out = new ArrayList<>();
 		if(page > 0) {
 			int min = 7 + (page-1)*8;
 			if(parent.hasDescription()) min--;
 			int max = min + 8;
-			outputSubcommands(c, min, max);
+			outputSubcommands(s, alias, out, min, max);
 		}
 		else {
-			outputBaseHelp(c);
+			outputBaseHelp(s, alias, out);
 		}
+		return out;
 	}
 	
-	private void outputBaseHelp(RanCommand c) {
-		Sender s = c.getSender();
+	private void outputBaseHelp(Sender s, String alias, List<Component> out) {
 		var baseHelpComponent = Atlas.get().componentBuilder();
 		var permissionSubComponent = Atlas.get().componentBuilder();
 		var flagSubComponent = Atlas.get().componentBuilder();
@@ -91,17 +148,14 @@ public class HelpCommand extends AtlasCommand {
 			baseHelpComponent.hoverText(flagSubComponent.build());
 		}
 		
-		commandHeadline(baseHelpComponent,c).send(s);
-		var descriptionComponent = Atlas.get().componentBuilder().append(parent.getDescription(), AtlasColor.GRAY, TextDecoration.ITALIC).build();
-		if(parent.hasDescription()) c.msg(descriptionComponent);
+		out.add(commandHeadline(baseHelpComponent, alias).build());
+		if(parent.hasDescription()) out.add(Atlas.get().componentBuilder().append(parent.getDescription(), AtlasColor.GRAY, TextDecoration.ITALIC).build());
 		
 		int max = parent.hasDescription()? 6:7;
-		outputSubcommands(c, 0, max);
+		outputSubcommands(s, alias, out, 0, max);
 	}
 	
-	private AbstractComponentBuilder<?> commandHeadline(AbstractComponentBuilder<?> b, RanCommand c) {
-		String alias = "/" + c.getUsedAlias();
-		if(alias.endsWith("help")) alias = alias.substring(0, alias.length() - 5);
+	private AbstractComponentBuilder<?> commandHeadline(AbstractComponentBuilder<?> b, String alias) {
 		b.append(alias, AtlasColor.GOLD);
 		b.onClickSuggestCommand(alias);
 		fillArgs(parent, alias, b, true);
@@ -127,19 +181,15 @@ public class HelpCommand extends AtlasCommand {
 		return colors[i%colors.length];
 	}
 	
-	void outputSubcommands(RanCommand c, int min, int max) {
-		Sender s = c.getSender();
+	private void outputSubcommands(Sender s, String alias, List<Component> out, int min, int max) {
 		List<AtlasCommand> subs = parent.getSubCommands().stream()
 				.filter(sub->sub!=this)
 				.filter(sub->sub.hasPermission(s))
 				.sorted((s1,s2)-> s1.getMainCommand().compareTo(s2.getMainCommand()))
 				.collect(Collectors.toList());
 		
-		String alias = "/" + c.getUsedAlias();
-		if(alias.endsWith("help")) alias = alias.substring(0, alias.length() - 5);
-		
 		if(subs.size() <= min) {
-			if(min > 0) s.sendMessage(RanCommand.ERROR_PREFIX.append(Component.text("Invalid help page!", AtlasColor.RED.toTextColor())));
+			if(min > 0) out.add(RanCommand.ERROR_PREFIX.append(Component.text("Invalid help page!", AtlasColor.RED.toTextColor())));
 			return;
 		} else {
 			String trailing = alias.substring(alias.lastIndexOf(" ")+1);
@@ -154,7 +204,7 @@ public class HelpCommand extends AtlasCommand {
 				b.append(" ").appendBracketed('\u2192', AtlasColor.DARK_GRAY, AtlasColor.RED).hoverText(hoverText).onClickRunCommand(alias + " -h " + ((min+2)/8+1));
 			}
 			
-			c.msg(b.build());
+			out.add(b.build());
 		}
 		
 		//Arrays start at 1 fight me
@@ -178,8 +228,15 @@ public class HelpCommand extends AtlasCommand {
 				}
 			}
 			
-			b.send(s);
+			out.add(b.build());
 		}
 
 	}
+	
+	@Value
+	private static class PageKey {
+		String alias;
+		int page;
+		BitSet permissions;
+	}
 }
@@ -2,10 +2,15 @@ package com.dndcraft.atlas.command;
 
 import com.dndcraft.atlas.Atlas;
 import com.dndcraft.atlas.agnostic.Sender;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
 import com.mojang.brigadier.arguments.ArgumentType;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.Value;
 import lombok.experimental.Accessors;
 import net.kyori.adventure.text.Component;
 import org.apache.commons.lang.Validate;
@@ -13,9 +18,16 @@ import org.apache.commons.lang.Validate;
 import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -25,19 +37,24 @@ import java.util.function.Supplier;
 @Accessors(fluent=true)
 @Setter
 public class ParameterType<T> {
-    private static final Map<Class<?>, ParameterType<?>> customTypes = new HashMap<>();
+    //Copy-on-write: registering swaps in a new registry, so lookups never lock and never see a half made one
+    private static volatile Registry registry = new Registry(ImmutableMap.of());
 
+    /**
+     * @return the type registered for this class, or else the one of its closest registered superclass or interface.
+     * Types found through a supertype only accept values that are instances of the given class.
+     */
     public static ParameterType<?> getCustomType(Class<?> clazz) {
-        return customTypes.get(clazz);
+        return registry.resolve(clazz);
     }
 
     public static boolean senderTypeExists(Class<?> clazz) {
-        var x = customTypes.get(clazz);
+        var x = getCustomType(clazz);
         return x != null && x.senderMapper() != null;
     }
 
     public static boolean argumentTypeExists(Class<?> clazz) {
-        var x = customTypes.get(clazz);
+        var x = getCustomType(clazz);
         return x != null && (x.mapper() != null || x.mapperWithSender != null);
     }
 
@@ -55,6 +72,7 @@ public class ParameterType<T> {
     private CommandCompleter completer;
     private String defaultName;
     private Component defaultError;
+    @Setter(AccessLevel.NONE) private Memo<T> memo;
 
 
     private boolean isClassValid() {
@@ -82,16 +100,116 @@ public class ParameterType<T> {
         Validate.notNull(forClass, "There is no class specified for this argument type");
         Validate.isTrue(isClassValid(), "The class to specify as an argument type was already handled");
 
+        synchronized(ParameterType.class) {
+            registerLocked();
+        }
+    }
+
+    private void registerLocked() {
         @SuppressWarnings("unchecked") //This is safe because only type T can be linked to Class<T> which is what the key was
-                var existing = (ParameterType<T>) customTypes.get(forClass);
+                var existing = (ParameterType<T>) registry.registered.get(forClass);
         if(existing != null) {
             Atlas.get().getLogger().warning("Attempted a merge on a custom command argument type for the class: " + forClass.getSimpleName());
             Atlas.get().getLogger().warning("This might be fine but more likely this was unintended and might lead to unexpected behavior");
             if(existing.mapper == null) existing.mapper = this.mapper;
             if(existing.senderMapper == null) existing.senderMapper = this.senderMapper;
             if(existing.filter == null) existing.filter = this.filter;
+            if(existing.memo == null) existing.memo = this.memo;
+            registry = new Registry(registry.registered); //Anything resolved through the old one is stale now
         } else {
-            customTypes.put(forClass, this);
+            registry = new Registry(ImmutableMap.<Class<?>, ParameterType<?>>builder()
+                    .putAll(registry.registered)
+                    .put(forClass, this)
+                    .build());
+        }
+    }
+
+    /**
+     * @return a copy of this type for a subclass of what it was registered for, rejecting values of any other class
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <X> ParameterType<X> narrowTo(Class<X> subclass) {
+        ParameterType<X> narrowed = new ParameterType<>(subclass);
+        narrowed.mapper = (Function) mapper;
+        narrowed.mapperWithSender = (BiFunction) mapperWithSender;
+        narrowed.senderMapper = (Function) senderMapper;
+        Predicate<T> own = filter;
+        narrowed.filter = x -> subclass.isInstance(x) && (own == null || own.test((T) x));
+        narrowed.brigadierType = brigadierType;
+        narrowed.completer = completer;
+        narrowed.defaultName = defaultName;
+        narrowed.defaultError = defaultError;
+        narrowed.memo = (Memo) memo; //Shared, so invalidating the registered type also clears what the copy resolved
+        return narrowed;
+    }
+
+    private static final class Memo<T> {
+        private final Cache<MemoKey, T> cache;
+        private final boolean perSender;
+
+        private Memo(Duration ttl, long maxSize, boolean perSender) {
+            this.cache = CacheBuilder.newBuilder()
+                    .expireAfterWrite(ttl.toMillis(), TimeUnit.MILLISECONDS)
+                    .maximumSize(maxSize)
+                    .build();
+            this.perSender = perSender;
+        }
+
+        private BiFunction<Sender, String, T> wrap(BiFunction<Sender, String, T> mapper) {
+            return (sender, input) -> {
+                MemoKey key = new MemoKey(perSender? sender.getName() : null, input);
+                T value = cache.getIfPresent(key);
+                if(value != null) return value;
+
+                value = mapper.apply(sender, input);
+                if(value != null) cache.put(key, value);
+                return value;
+            };
+        }
+    }
+
+    @Value
+    private static class MemoKey {
+        String sender;
+        String input;
+    }
+
+    private static final class Registry {
+        private final ImmutableMap<Class<?>, ParameterType<?>> registered;
+        //Every class asked about so far, empty when nothing in its hierarchy is registered
+        private final Map<Class<?>, Optional<ParameterType<?>>> resolved = new ConcurrentHashMap<>();
+
+        private Registry(ImmutableMap<Class<?>, ParameterType<?>> registered) {
+            this.registered = registered;
+        }
+
+        private ParameterType<?> resolve(Class<?> clazz) {
+            Optional<ParameterType<?>> result = resolved.get(clazz);
+            if(result == null) result = resolved.computeIfAbsent(clazz, this::walk);
+            return result.orElse(null);
+        }
+
+        //Closest superclass first, then interfaces breadth first
+        private Optional<ParameterType<?>> walk(Class<?> clazz) {
+            ParameterType<?> exact = registered.get(clazz);
+            if(exact != null) return Optional.of(exact);
+
+            for(Class<?> c = clazz.getSuperclass(); c != null && c != Object.class; c = c.getSuperclass()) {
+                ParameterType<?> found = registered.get(c);
+                if(found != null) return Optional.of(found.narrowTo(clazz));
+            }
+
+            Deque<Class<?>> queue = new ArrayDeque<>();
+            Set<Class<?>> seen = new HashSet<>();
+            for(Class<?> c = clazz; c != null; c = c.getSuperclass()) queue.addAll(Arrays.asList(c.getInterfaces()));
+            while(!queue.isEmpty()) {
+                Class<?> next = queue.poll();
+                if(!seen.add(next)) continue;
+                ParameterType<?> found = registered.get(next);
+                if(found != null) return Optional.of(found.narrowTo(clazz));
+                queue.addAll(Arrays.asList(next.getInterfaces()));
+            }
+            return Optional.empty();
         }
     }
 
@@ -121,6 +239,29 @@ public class ParameterType<T> {
         return this;
     }
 
+    /**
+     * Remembers what the mapper resolved each input to, for mappers too expensive to run on every invocation
+     * (database lookups and the like). Only successful mappings are remembered.
+     * @param ttl how long a mapped value is reused after it was resolved
+     * @param maxSize how many mapped values are kept at most
+     * @param perSender whether every sender gets their own values, needed when the mapper depends on who is asking
+     */
+    public ParameterType<T> memoize(Duration ttl, long maxSize, boolean perSender) {
+        this.memo = new Memo<>(ttl, maxSize, perSender);
+        return this;
+    }
+
+    /**
+     * Forgets what the given input was mapped to, for every sender. Call this when whatever it resolved to changed.
+     */
+    public void invalidate(String input) {
+        if(memo != null) memo.cache.asMap().keySet().removeIf(key -> key.input.equals(input));
+    }
+
+    public void invalidateAll() {
+        if(memo != null) memo.cache.invalidateAll();
+    }
+
     public void settle(CmdArg<T> arg) {
         if(mapper != null && mapperWithSender != null)
             throw new IllegalStateException("Tried to define the mapping of an argument from string twice! Once with and once without sender! Please define only one");
@@ -129,6 +270,7 @@ public class ParameterType<T> {
         if(mapper != null) arg.setMapper(mapper);
         if(mapperWithSender != null) arg.setMapperWithSender(mapperWithSender);
         if(brigadierType!=null) arg.setBrigadierType(brigadierType);
+        if(memo != null) arg.setMapperWithSender(memo.wrap(arg.getMapperWithSender()));
     }
 
     public String getDefaultName() {
@@ -0,0 +1,90 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.agnostic.Sender;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang.StringUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission decisions of one sender, made once per dispatch or tab completion pass, so walking a command tree
+ * asks the permission plugin about each distinct permission at most once.
+ * Decisions can also be retained across passes with {@link #setRetention(Duration)}, off by default. Whoever turns that on
+ * should call {@link #invalidate(String)} when a sender's permissions change, Atlas does so when a player's command
+ * tree is resent, changes worlds or quits.
+ * @Author Nickrocky
+ */
+public final class PermissionCache {
+	private static volatile Cache<String, Map<String, Boolean>> retained = null;
+
+	private final Sender sender;
+	private final Map<String, Boolean> decisions;
+
+	private PermissionCache(Sender sender, Map<String, Boolean> decisions) {
+		this.sender = sender;
+		this.decisions = decisions;
+	}
+
+	/**
+	 * @return the decisions for a new pass of this sender, which are the retained ones if retention is on
+	 */
+	static PermissionCache of(Sender sender) {
+		Cache<String, Map<String, Boolean>> cache = retained;
+		if(cache == null) return new PermissionCache(sender, new HashMap<>());
+
+		try {
+			return new PermissionCache(sender, cache.get(sender.getName(), ConcurrentHashMap::new));
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	boolean allows(String permission) {
+		if(StringUtils.isEmpty(permission)) return true;
+		Boolean decision = decisions.get(permission);
+		if(decision == null) {
+			decision = sender.hasPermission(permission);
+			decisions.put(permission, decision);
+		}
+		return decision;
+	}
+
+	boolean allows(AtlasCommand command) {
+		return allows(command.getPermission());
+	}
+
+	/**
+	 * Keeps permission decisions around between passes
+	 * @param retention how long a sender's decisions are kept after they were first made, zero turns retention off
+	 */
+	public static void setRetention(Duration retention) {
+		if(retention.isZero() || retention.isNegative()) {
+			retained = null;
+			return;
+		}
+
+		retained = CacheBuilder.newBuilder()
+				.expireAfterWrite(retention.toMillis(), TimeUnit.MILLISECONDS)
+				.maximumSize(2048)
+				.build();
+	}
+
+	/**
+	 * Forgets the retained decisions of a sender, call this when their permissions change
+	 */
+	public static void invalidate(String senderName) {
+		Cache<String, Map<String, Boolean>> cache = retained;
+		if(cache != null) cache.invalidate(senderName);
+	}
+
+	public static void invalidateAll() {
+		Cache<String, Map<String, Boolean>> cache = retained;
+		if(cache != null) cache.invalidateAll();
+	}
+}
@@ -13,7 +13,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.Validate;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @RequiredArgsConstructor
@@ -91,16 +90,46 @@ public class RanCommand implements CommandHandle{
         sender.sendMessage(message);
     }
 
-    void parseAll(List<String> args) {
-        parseFlags(args);
-        if(hasFlag("h") && command.getHelp() != null) {
-            Atlas.get().getLogger().info("Found a help flag! No further parsing needed!");
-            return;
-        }
+    /**
+     * Runs a task on the server thread, meant for async commands that need to get back to it.
+     * Errors thrown by the task are reported to the sender like any other command error.
+     * @param task the task to run, right away if we're already on the server thread
+     */
+    public void sync(Runnable task) {
+        Atlas.get().mainThreadExecutor().execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                handleException(e);
+            }
+        });
+    }
+
+    void parseAll(List<String> input, Map<String, CmdFlag> flagAliases) {
+        List<String> args = parseFlags(input, flagAliases);
+        if(hasFlag("h") && command.getHelp() != null) return; //No further parsing needed
         parseCommandSender();
         parseArgs(args);
+    }
+
+    /**
+     * Resolves the arguments from what Brigadier already parsed instead of the raw input
+     * @param parsed the value Brigadier parsed for each argument, or null where the argument wasn't given
+     * @param raw the input text of each argument, or null where the argument wasn't given
+     */
+    void parseParsed(Object[] parsed, String[] raw) {
+        parseCommandSender();
+        List<CmdArg<?>> cmdArgs = command.getArgs();
+        for(int i = 0; i < cmdArgs.size(); i++) {
+            CmdArg<?> arg = cmdArgs.get(i);
+            Object o;
+            if(i >= raw.length || raw[i] == null) o = arg.resolveDefault(sender);
+            else if(arg.isBrigadierValue()) o = arg.resolveParsed(parsed[i]);
+            else o = arg.resolve(sender, raw[i]);
 
-        Atlas.get().getLogger().info("Parsed " + argResults.size() + " args and " + flags.size() + " flags.");
+            if(o == null) error(Component.text("at argument " + (i+1) + ": ").append(arg.getErrorMessage()));
+            else argResults.add(o);
+        }
     }
 
     private <S> void parseCommandSender() throws CmdParserException {
@@ -135,37 +164,47 @@ public class RanCommand implements CommandHandle{
         }
     }
 
-    private void parseFlags(List<String> args) throws CmdParserException {
-        //Father forgive me for I have sinned
-        List<CmdFlag> f = command.getFlags().stream().filter(fl->fl.mayUse(sender))
-                .collect(Collectors.toCollection(ArrayList::new));
-        for(int i = 0; i < args.size(); i++) {
+    /**
+     * Pulls the flags and their arguments out of the input in a single pass
+     * @param args the raw arguments, left untouched
+     * @param flagAliases every flag of the command keyed by '-' followed by each of its aliases
+     * @return the positional arguments, which is just args when no flags were given
+     */
+    private List<String> parseFlags(List<String> args, Map<String, CmdFlag> flagAliases) throws CmdParserException {
+        if(flagAliases.isEmpty()) return args;
+
+        List<String> positional = null; //Only copied once we run into the first flag
+        int size = args.size();
+        for(int i = 0; i < size; i++) {
             String a = args.get(i);
-            if(a.startsWith("-")) {
-                CmdFlag flag = matchFlag(a, f);
-                if(flag != null) { //Weird shit happens to i here. Plan accordingly.
-                    args.remove(i--); //this shortens the list of args. Index shift
-
-                    if(flag.isVoid()) { //Some flags cant possibly take any arguments. Give special treatment for client flexibility
-                        putFlag(flag, "I_EXIST");
-                        continue;
-                    }
-
-                    String flagArg;
-                    if((i+1) < args.size() && !args.get(i+1).startsWith("-")) { //next arg is now under the cursor
-                        flagArg = args.remove(1+i); //Additional index shift since we took 2 args now
-                    } else {
-                        flagArg = flag.getArg().getDefaultInput();
-                    }
-
-                    if (flagArg == null) error(ERROR_FLAG_ARG.append(Component.text(flag.getName())));
-
-                    Object resolved = Optional.of(flagArg).map(xx->flag.getArg().resolve(sender, xx)).orElse(null);
-                    if(resolved == null) error(ERROR_FLAG_ARG.append(Component.text(flag.getName())));
-                    else putFlag(flag, resolved);
-                }
+            CmdFlag flag = a.startsWith("-")? flagAliases.get(a.toLowerCase()) : null;
+            if(flag == null || !flag.mayUse(sender)) {
+                if(positional != null) positional.add(a);
+                continue;
+            }
+
+            if(positional == null) {
+                positional = new ArrayList<>(size);
+                positional.addAll(args.subList(0, i));
             }
+
+            if(flag.isVoid()) { //Some flags cant possibly take any arguments. Give special treatment for client flexibility
+                putFlag(flag, "I_EXIST");
+                continue;
+            }
+
+            String flagArg;
+            if((i+1) < size && !args.get(i+1).startsWith("-")) flagArg = args.get(++i); //Skip over the flag argument
+            else flagArg = flag.getArg().getDefaultInput();
+
+            if (flagArg == null) error(ERROR_FLAG_ARG.append(Component.text(flag.getName())));
+
+            Object resolved = flag.getArg().resolve(sender, flagArg);
+            if(resolved == null) error(ERROR_FLAG_ARG.append(Component.text(flag.getName())));
+            else putFlag(flag, resolved);
         }
+
+        return positional == null? args : positional;
     }
 
     private void putFlag(CmdFlag flag, Object resolved) {
@@ -173,22 +212,12 @@ public class RanCommand implements CommandHandle{
         else flags.put(flag.getName(), resolved);
     }
 
-    private CmdFlag matchFlag(String input, List<CmdFlag> flags) {
-        String xput = input.substring(1).toLowerCase();
-        for(CmdFlag flag : flags) {
-            boolean flagFound = flag.getAliases().stream().filter(f->f.equals(xput)).findAny().isPresent();
-            if(flagFound) return flag;
-        }
-
-        return null;
-    }
-
     private void parseArgs(List<String> args) throws CmdParserException {
         List<CmdArg<?>> cmdArgs = command.getArgs();
 
         HelpCommand help = command.getHelp();
         if(args.size() == 0 && cmdArgs.size() > 0 && !cmdArgs.get(0).hasDefaultInput() && help != null) {
-            Atlas.get().getLogger().info("Found 0 args for a command that takes more. Defaulting to help output.");
+            //Found 0 args for a command that takes more. Defaulting to help output.
             flags.put("h", 0);
             return;
         }
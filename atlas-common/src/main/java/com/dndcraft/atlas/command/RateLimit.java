@@ -0,0 +1,70 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.util.AtlasColor;
+import lombok.Getter;
+import net.kyori.adventure.text.Component;
+import org.apache.commons.lang.Validate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket per sender for a single command: every sender may use it {@link #getBurst()} times in a row,
+ * after which they get {@link #getPerSecond()} uses per second back.
+ * Each bucket is a single AtomicLong holding the time the bucket is full again, so taking a token is one CAS and never locks.
+ * Senders with {@value #BYPASS_PERMISSION} are never limited.
+ * @Author Nickrocky
+ */
+public final class RateLimit {
+	public static final String BYPASS_PERMISSION = "atlas.ratelimit.bypass";
+	static final Component REJECTED = RanCommand.ERROR_PREFIX.append(Component.text("You're doing that too often, slow down.", AtlasColor.RED.toTextColor()));
+	private static final int PRUNE_THRESHOLD = 1024;
+
+	@Getter private final double perSecond;
+	@Getter private final int burst;
+	private final long interval; //Nanos it takes to earn back a single use
+	private final long tolerance; //How far ahead of now the bucket may be drained
+
+	private final Map<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+
+	/**
+	 * @param perSecond how many uses per second a sender earns back
+	 * @param burst how many uses a sender with a full bucket may make back to back, 0 for one second's worth
+	 */
+	public RateLimit(double perSecond, int burst) {
+		Validate.isTrue(perSecond > 0, "A rate limit needs a positive rate");
+		Validate.isTrue(burst >= 0, "A rate limit can't have a negative burst");
+		this.perSecond = perSecond;
+		this.burst = burst > 0? burst : Math.max(1, (int) Math.ceil(perSecond));
+		this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+		this.tolerance = interval * (this.burst - 1);
+	}
+
+	/**
+	 * Takes a token from the sender's bucket
+	 * @return false if the bucket is empty and the sender should be turned away
+	 */
+	boolean tryAcquire(Sender sender, PermissionCache permissions) {
+		long now = System.nanoTime();
+		AtomicLong bucket = fullAt.get(sender.getName());
+		if(bucket == null) {
+			if(fullAt.size() > PRUNE_THRESHOLD) prune(now);
+			bucket = fullAt.computeIfAbsent(sender.getName(), $ -> new AtomicLong(now));
+		}
+
+		while(true) {
+			long current = bucket.get();
+			long from = current - now < 0? now : current; //A bucket that filled up in the past starts from now
+			if(from - now > tolerance) return permissions.allows(BYPASS_PERMISSION);
+			if(bucket.compareAndSet(current, from + interval)) return true;
+		}
+	}
+
+	//Full buckets hold nothing worth keeping
+	private void prune(long now) {
+		fullAt.values().removeIf(bucket -> bucket.get() - now < 0);
+	}
+}
@@ -0,0 +1,68 @@
+package com.dndcraft.atlas.command;
+
+import com.dndcraft.atlas.io.sql.SQLHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Writes audit entries into the atlas_command_audit table, one transaction per batch.
+ * Arguments and flags are stored as JSON.
+ * @Author Nickrocky
+ */
+public class SQLAuditSink implements AuditSink {
+	static final String TABLE = "atlas_command_audit";
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	private final SQLHandler handler;
+
+	/**
+	 * @throws SQLException if the audit table could not be created
+	 */
+	public SQLAuditSink(SQLHandler handler) throws SQLException {
+		this.handler = handler;
+		handler.migrations("Atlas_CommandAudit")
+				.version(1, "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+						+ "at BIGINT NOT NULL, "
+						+ "sender VARCHAR(64) NOT NULL, "
+						+ "command VARCHAR(255) NOT NULL, "
+						+ "args TEXT NOT NULL, "
+						+ "flags TEXT NOT NULL, "
+						+ "micros BIGINT NOT NULL, "
+						+ "outcome TEXT NOT NULL) " + handler.end(),
+						"CREATE INDEX atlas_command_audit_sender ON " + TABLE + " (sender, at)")
+				.migrate();
+	}
+
+	@Override
+	public void write(List<CommandAudit.Entry> batch) throws SQLException, JsonProcessingException {
+		try(Connection connection = handler.primary().getConnection()) {
+			boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try(PreparedStatement insert = connection.prepareStatement("INSERT INTO " + TABLE
+					+ " (at, sender, command, args, flags, micros, outcome) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+				for(CommandAudit.Entry entry : batch) {
+					insert.setLong(1, entry.getTimestamp());
+					insert.setString(2, entry.getSender());
+					insert.setString(3, entry.getCommand());
+					insert.setString(4, JSON.writeValueAsString(entry.getArgs()));
+					insert.setString(5, JSON.writeValueAsString(entry.getFlags()));
+					insert.setLong(6, entry.getMicros());
+					insert.setString(7, entry.getOutcome());
+					insert.addBatch();
+				}
+				insert.executeBatch();
+				connection.commit();
+			} catch (SQLException | JsonProcessingException e) {
+				connection.rollback();
+				throw e;
+			} finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.dndcraft.atlas.command.admin;
+
+import com.dndcraft.atlas.command.CommandTemplate;
+import com.dndcraft.atlas.command.annotations.Cmd;
+
+/**
+ * The /atlas command, home of Atlas' diagnostics. Each diagnostic gets its own sub layer.
+ * @Author Nickrocky
+ * */
+public class AtlasAdminCommand extends CommandTemplate {
+
+    @Cmd(value="SQL query timings and connection pool usage", permission="atlas.admin")
+    public CommandTemplate sql() {
+        return new SQLStatisticsCommand();
+    }
+
+    @Cmd(value="Command invocation counts, timings and failures", permission="atlas.admin")
+    public CommandTemplate commands() {
+        return new CommandMetricsCommand();
+    }
+
+    @Cmd(value="Record parse and execute timings of a command for debugging", permission="atlas.admin")
+    public CommandTemplate trace() {
+        return new CommandTraceCommand();
+    }
+
+}
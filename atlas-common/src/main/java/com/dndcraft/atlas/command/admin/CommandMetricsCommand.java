@@ -0,0 +1,52 @@
+package com.dndcraft.atlas.command.admin;
+
+import com.dndcraft.atlas.Atlas;
+import com.dndcraft.atlas.command.CommandMetrics;
+import com.dndcraft.atlas.command.CommandTemplate;
+import com.dndcraft.atlas.command.annotations.Arg;
+import com.dndcraft.atlas.command.annotations.Cmd;
+import com.dndcraft.atlas.command.annotations.Default;
+import com.dndcraft.atlas.util.AtlasColor;
+import com.dndcraft.atlas.util.LatencyHistogram;
+
+import java.util.List;
+
+public class CommandMetricsCommand extends CommandTemplate {
+
+    public void invoke(@Arg(value="amount", description="How many commands to show") @Default("10") int amount) {
+        List<CommandMetrics> commands = CommandMetrics.all();
+        if(commands.isEmpty()) {
+            msg(Atlas.get().componentBuilder().append("No commands recorded yet.", AtlasColor.GRAY).build());
+            return;
+        }
+
+        msg(Atlas.get().componentBuilder().append("-== Slowest commands by total time ==-", AtlasColor.NAVY_BLUE).build());
+        for(int i = 0; i < amount && i < commands.size(); i++) {
+            CommandMetrics command = commands.get(i);
+            LatencyHistogram parse = command.getParseLatency();
+            LatencyHistogram execute = command.getExecuteLatency();
+
+            StringBuilder hover = new StringBuilder()
+                    .append(String.format("Parse: %.2fms mean, %.2fms p95, %.2fms max", parse.getMeanMillis(), parse.getPercentileMillis(95), parse.getMaxMillis()))
+                    .append(String.format("\nExecute: %.2fms mean, %.2fms p95, %.2fms max", execute.getMeanMillis(), execute.getPercentileMillis(95), execute.getMaxMillis()))
+                    .append("\nFailed: ").append(command.getFailures());
+            command.getExceptions().forEach((type, count) -> hover.append('\n').append(type).append(": ").append(count));
+
+            msg(Atlas.get().componentBuilder()
+                    .append(String.format("%.2fms", execute.getMeanMillis()), AtlasColor.DANDELION)
+                    .append(String.format(" p95 %.2fms", execute.getPercentileMillis(95)), AtlasColor.GOLD)
+                    .append(" " + command.getInvocations() + "x", AtlasColor.GREEN)
+                    .append(command.getExceptionCount() > 0 ? " " + command.getExceptionCount() + " exceptions" : "", AtlasColor.RED)
+                    .append(" " + command.getPath(), AtlasColor.GRAY)
+                    .hoverText(hover.toString())
+                    .build());
+        }
+    }
+
+    @Cmd("Clear all recorded command metrics")
+    public void reset() {
+        CommandMetrics.resetAll();
+        msg(Atlas.get().componentBuilder().append("Cleared command metrics", AtlasColor.GREEN).build());
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.dndcraft.atlas.command.admin;
+
+import com.dndcraft.atlas.Atlas;
+import com.dndcraft.atlas.command.CommandTemplate;
+import com.dndcraft.atlas.command.CommandTrace;
+import com.dndcraft.atlas.command.annotations.Arg;
+import com.dndcraft.atlas.command.annotations.Cmd;
+import com.dndcraft.atlas.command.annotations.Default;
+import com.dndcraft.atlas.util.AtlasColor;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+public class CommandTraceCommand extends CommandTemplate {
+
+    @Cmd("Start tracing every invocation of a command")
+    public void enable(@Arg("command") String command) {
+        CommandTrace.of(command).setEnabled(true);
+        msg(Atlas.get().componentBuilder().append("Tracing /" + command.toLowerCase(), AtlasColor.GREEN).build());
+    }
+
+    @Cmd("Stop tracing a command, what was recorded is kept until it is enabled again")
+    public void disable(@Arg("command") String command) {
+        CommandTrace.of(command).setEnabled(false);
+        msg(Atlas.get().componentBuilder().append("Stopped tracing /" + command.toLowerCase(), AtlasColor.GREEN).build());
+    }
+
+    @Cmd("Show the most recent traced invocations of a command")
+    public void dump(@Arg("command") String command, @Arg(value="amount", description="How many invocations to show") @Default("10") int amount) {
+        List<CommandTrace.Entry> entries = CommandTrace.of(command).dump();
+        if(entries.isEmpty()) {
+            msg(Atlas.get().componentBuilder().append("Nothing traced for /" + command.toLowerCase() + " yet.", AtlasColor.GRAY).build());
+            return;
+        }
+
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss");
+        msg(Atlas.get().componentBuilder().append("-== Latest invocations of /" + command.toLowerCase() + " ==-", AtlasColor.NAVY_BLUE).build());
+        for(int i = Math.max(0, entries.size() - amount); i < entries.size(); i++) {
+            CommandTrace.Entry entry = entries.get(i);
+            msg(Atlas.get().componentBuilder()
+                    .append(time.format(new Date(entry.getTimestamp())), AtlasColor.GRAY)
+                    .append(" " + entry.getSender(), AtlasColor.GOLD)
+                    .append(" /" + entry.getAlias() + " " + entry.getInput(), AtlasColor.WHITE)
+                    .append(String.format(" %.2f+%.2fms", entry.getParseNanos() / 1e6, entry.getExecuteNanos() / 1e6), AtlasColor.DANDELION)
+                    .hoverText("Outcome: " + entry.getOutcome())
+                    .build());
+        }
+    }
+
+    @Cmd("List every command that is currently being traced")
+    public void list() {
+        CommandTrace.all().stream().filter(CommandTrace::isEnabled).forEach(trace ->
+                msg(Atlas.get().componentBuilder().append("/" + trace.getCommand(), AtlasColor.DANDELION).build()));
+    }
+
+}
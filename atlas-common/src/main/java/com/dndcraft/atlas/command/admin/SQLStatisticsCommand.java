@@ -0,0 +1,76 @@
+package com.dndcraft.atlas.command.admin;
+
+import com.dndcraft.atlas.Atlas;
+import com.dndcraft.atlas.command.CommandTemplate;
+import com.dndcraft.atlas.command.annotations.Arg;
+import com.dndcraft.atlas.command.annotations.Cmd;
+import com.dndcraft.atlas.command.annotations.Default;
+import com.dndcraft.atlas.io.sql.SQLStatistics;
+import com.dndcraft.atlas.util.AtlasColor;
+import com.dndcraft.atlas.util.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+public class SQLStatisticsCommand extends CommandTemplate {
+    private static final int MAX_SQL_LENGTH = 40;
+
+    public void invoke(@Arg(value="amount", description="How many queries to show") @Default("10") int amount) {
+        SQLStatistics stats = Atlas.getSQLHandler().statistics();
+
+        stats.getPools().forEach((name, pool) -> msg(Atlas.get().componentBuilder()
+                .append(name + " pool: ", AtlasColor.GOLD)
+                .append(pool.getActive() + " active, " + pool.getIdle() + " idle, " + pool.getWaiting() + " waiting", AtlasColor.GRAY)
+                .build()));
+
+        List<SQLStatistics.QueryStats> queries = stats.getQueries();
+        if(queries.isEmpty()) {
+            msg(Atlas.get().componentBuilder().append("No queries recorded yet.", AtlasColor.GRAY).build());
+            return;
+        }
+
+        msg(Atlas.get().componentBuilder().append("-== Slowest queries by total time ==-", AtlasColor.NAVY_BLUE).build());
+        for(int i = 0; i < amount && i < queries.size(); i++) {
+            SQLStatistics.QueryStats query = queries.get(i);
+            LatencyHistogram latency = query.getLatency();
+            String sql = query.getSql();
+            if(sql.length() > MAX_SQL_LENGTH) sql = sql.substring(0, MAX_SQL_LENGTH - 1) + '…';
+
+            msg(Atlas.get().componentBuilder()
+                    .append(String.format("%.1fms", latency.getMeanMillis()), AtlasColor.DANDELION)
+                    .append(String.format(" p95 %.1fms", latency.getPercentileMillis(95)), AtlasColor.GOLD)
+                    .append(" " + latency.getCount() + "x", AtlasColor.GREEN)
+                    .append(query.getErrors() > 0 ? " " + query.getErrors() + " failed" : "", AtlasColor.RED)
+                    .append(" " + sql, AtlasColor.GRAY)
+                    .hoverText(query.getSql() + "\nRows: " + query.getRows() + String.format("\nMax: %.1fms", latency.getMaxMillis()))
+                    .build());
+        }
+    }
+
+    @Cmd("Write all SQL statistics to a CSV file in the Atlas folder")
+    public void export() {
+        File file = new File(Atlas.get().getDataFolder(), "sql-statistics-" + System.currentTimeMillis() + ".csv");
+        try {
+            Atlas.getSQLHandler().statistics().export(file);
+            msg(Atlas.get().componentBuilder().append("Exported SQL statistics to " + file.getName(), AtlasColor.GREEN).build());
+        } catch (IOException e) {
+            e.printStackTrace();
+            error(Atlas.get().componentBuilder().append("Could not write " + file.getName()).build());
+        }
+    }
+
+    @Cmd("Set the slow query log threshold, 0 turns it off")
+    public void threshold(@Arg("milliseconds") int milliseconds) {
+        Atlas.getSQLHandler().statistics().setSlowQueryThreshold(Duration.ofMillis(milliseconds));
+        msg(Atlas.get().componentBuilder().append("Slow query threshold set to " + milliseconds + "ms", AtlasColor.GREEN).build());
+    }
+
+    @Cmd("Clear all recorded SQL statistics")
+    public void reset() {
+        Atlas.getSQLHandler().statistics().reset();
+        msg(Atlas.get().componentBuilder().append("Cleared SQL statistics", AtlasColor.GREEN).build());
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.dndcraft.atlas.command.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Resolves the arguments of and runs the annotated command on the Atlas worker pool instead of the server thread.
+ * Use RanCommand#sync (or CommandTemplate#sync) for anything that has to touch the world afterwards.
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Async {
+}
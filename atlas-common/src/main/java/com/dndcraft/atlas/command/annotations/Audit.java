@@ -0,0 +1,16 @@
+package com.dndcraft.atlas.command.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Records every invocation of the annotated command in the CommandAudit log, meant for staff commands.
+ * Nothing is written anywhere until a plugin starts CommandAudit with a sink.
+ */
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface Audit {
+}
@@ -14,4 +14,10 @@ public @interface Cmd {
 	String alias() default "";
 	String[] aliases() default {};
 	boolean flags() default true;
+	/** How many times per second each sender may run the command, 0 for no limit */
+	double rate() default 0;
+	/** How many runs a sender may make back to back before the rate kicks in, 0 for one second's worth */
+	int burst() default 0;
+	/** How many tab completions per second each sender gets for the command, 0 for no limit */
+	double completionRate() default 0;
 }
@@ -1,9 +1,12 @@
 package com.dndcraft.atlas.command.brigadier;
 
+import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.command.AgnosticExecutor;
 import com.dndcraft.atlas.command.AtlasCommand;
 import com.dndcraft.atlas.command.CmdArg;
 import com.dndcraft.atlas.command.CmdFlag;
 import com.dndcraft.atlas.command.HelpCommand;
+import com.mojang.brigadier.Command;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
@@ -16,6 +19,7 @@ import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.mojang.brigadier.tree.CommandNode;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
+import org.apache.commons.lang.StringUtils;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
@@ -25,6 +29,27 @@ import java.util.stream.Collectors;
 public abstract class Kommandant {
 	private final AtlasCommand head;
 	private final List<CommandNode<Object>> rootNodes = new ArrayList<>();
+	private final Map<CommandNode<Object>, String> permissions = new IdentityHashMap<>();
+	private AgnosticExecutor executor = null;
+
+	/**
+	 * Makes the nodes run the command themselves from what Brigadier parsed, instead of doing nothing and
+	 * leaving the execution to the platform's command. Call this before {@link #addBrigadier()}.
+	 * @ApiNote This only covers input the platform hands to Brigadier. On Paper that's vanilla dispatch
+	 * (like /execute ... run), commands typed by players and the console still go through the commandMap to
+	 * the executor, which parses the input itself. Input reaching a flag node is re-parsed either way,
+	 * see {@link AgnosticExecutor#executeParsed}.
+	 * @param executor the executor of the same AtlasCommand this Kommandant was made for
+	 */
+	public void executeWith(AgnosticExecutor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @param source the source of a Brigadier command context on this platform
+	 * @return the sender behind it, needed to execute straight from Brigadier
+	 */
+	protected abstract Sender getSender(Object source);
 
 	public void addBrigadier() {
 		rootNodes.add(buildNode(head, null));
@@ -34,15 +59,34 @@ public abstract class Kommandant {
 		return Collections.unmodifiableList(rootNodes);
 	}
 
+	/**
+	 * @param node a literal node built by this Kommandant, including alias redirects
+	 * @return the permission needed to use the command behind the node, or null if anyone can
+	 */
+	public String getPermission(CommandNode<Object> node) {
+		return permissions.get(node);
+	}
+
 	private CommandNode<Object> buildNode(AtlasCommand cmd, CommandNode<Object> dad) {
 		CommandNode<Object> node = null;
 
+		//Adds numbers to duplicate names: prevents crashes and gray-text rubbish
+		Map<String, Integer> namesUsed = new HashMap<>();
+		List<String> argNames = new ArrayList<>();
+		for(var arg : cmd.getArgs()) {
+			String name = arg.getName();
+			Integer value = namesUsed.compute(name, (k, v)->v==null? 1 : v+1);
+			argNames.add(value > 1? name+value : name);
+		}
+		Command<Object> command = makeCommand(cmd, argNames);
+
 		if(cmd.isInvokeOverload()) {
 			node = dad;
 		} else {
 			val builder = LiteralArgumentBuilder.literal(cmd.getMainCommand());
-			if(!cmd.hasArgs() && !cmd.isEmptyCommand()) builder.executes($->0);
+			if(!cmd.hasArgs() && !cmd.isEmptyCommand()) builder.executes(command);
 			node = builder.build();
+			if(StringUtils.isNotEmpty(cmd.getPermission())) permissions.put(node, cmd.getPermission());
 		}
 
 		for(var sub : cmd.getSubCommands()) {
@@ -52,25 +96,20 @@ public abstract class Kommandant {
 		}
 
 		CommandNode<Object> argument = node;
-		Map<String, Integer> namesUsed = new HashMap<>();
 		List<CmdFlag> flags = cmd.getFlags().stream().filter(flag->!(flag.getName().equals("sudo") || flag.getName().equals("h"))).collect(Collectors.toList());
 		var queue = new LinkedList<>(cmd.getArgs());
-		if (queue.isEmpty()) addFlags(flags, node); // case zero args, add to node
+		var names = argNames.iterator();
+		if (queue.isEmpty()) addFlags(flags, node, command); // case zero args, add to node
 		while(!queue.isEmpty()) {
 			var arg = queue.poll();
 			var next = queue.peek();
 			boolean executes = next == null || next.hasDefaultInput();
-			
-			//Adds numbers to duplicate names: prevents crashes and gray-text rubbish
-			String name = arg.getName();
-			Integer value = namesUsed.compute(name, (k, v)->v==null? 1 : v+1);
-			if(value > 1) name = name+value;
 
-			CommandNode<Object> nextArg = buildNodeForArg(name, arg, executes);
+			CommandNode<Object> nextArg = buildNodeForArg(names.next(), arg, executes? command : null);
 
 			argument.addChild(nextArg);
 			
-			if (executes) addFlags(flags, nextArg); // otherwise, add flags to last node
+			if (executes) addFlags(flags, nextArg, command); // otherwise, add flags to last node
 			
 			//TODO add flags as an option for final arguments that have a default input; will need to pass to the RequiredArgumentBuilder
 			// perhaps have the suggestions only appear when a '-' is explicitly entered if possible
@@ -83,12 +122,20 @@ public abstract class Kommandant {
 		return node;
 	}
 	
-	private void addFlags(List<CmdFlag> flags, CommandNode<Object> node) {
+	private Command<Object> makeCommand(AtlasCommand cmd, List<String> argNames) {
+		if(executor == null) return $->0;
+		return context -> {
+			executor.executeParsed(getSender(context.getSource()), cmd, argNames, context);
+			return Command.SINGLE_SUCCESS;
+		};
+	}
+	
+	private void addFlags(List<CmdFlag> flags, CommandNode<Object> node, Command<Object> command) {
 		CommandNode<Object> lastFlag = null;
 		if (flags.size() > 0) {
 			for (int i = 0 ; i < flags.size() ; i++) {
 				CmdFlag flag = flags.get(i);
-				CommandNode<Object> flagArg = makeFlagBuilder(flags);
+				CommandNode<Object> flagArg = makeFlagBuilder(flags, command);
 
 				if(lastFlag == null) node.addChild(flagArg);
 				else lastFlag.addChild(flagArg);
@@ -96,7 +143,7 @@ public abstract class Kommandant {
 				lastFlag = flagArg;
 
 				if (!flag.isVoid()) {
-					flagArg = makeFlagBuilder(flags); //TODO make provider for flag arguments
+					flagArg = makeFlagBuilder(flags, command); //TODO make provider for flag arguments
 					lastFlag.addChild(flagArg);
 					lastFlag = flagArg;
 				}
@@ -105,9 +152,9 @@ public abstract class Kommandant {
 	}
 
 	//TODO improve flag completion to include subclass permission checks
-	private CommandNode<Object> makeFlagBuilder(List<CmdFlag> flags) {
+	private CommandNode<Object> makeFlagBuilder(List<CmdFlag> flags, Command<Object> command) {
 		var builder = RequiredArgumentBuilder.argument("flags", StringArgumentType.word());
-		builder.executes( $->0 );
+		builder.executes(command);
 		builder.suggests(new FlagSuggestionProvider<>(flags));
 		return builder.build();
 	}
@@ -129,12 +176,12 @@ public abstract class Kommandant {
 	}
 
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private CommandNode<Object> buildNodeForArg(String name, CmdArg<?> arg, boolean executes){
+	private CommandNode<Object> buildNodeForArg(String name, CmdArg<?> arg, Command<Object> command){
 
 		ArgumentType argumentType = arg.getBrigadierType();
 
 		var builder = makeBuilderWithSuggests(name, argumentType, arg);
-		if(executes) builder.executes( $->0 );
+		if(command != null) builder.executes(command);
 		return builder.build();
 	}
 	
@@ -147,6 +194,7 @@ public abstract class Kommandant {
 		for(String alias : cmd.getAliases()) {
 			if(alias.equalsIgnoreCase(cmd.getMainCommand())) continue;
 			var node = LiteralArgumentBuilder.literal(alias).redirect(theOneTrueNode).build();
+			if(StringUtils.isNotEmpty(cmd.getPermission())) permissions.put(node, cmd.getPermission());
 			if(parent == null) {
 				rootNodes.add(node);
 			}
@@ -0,0 +1,79 @@
+package com.dndcraft.atlas.io.sql;
+
+import co.aikar.idb.Database;
+import lombok.RequiredArgsConstructor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sits in front of an idb Database and times every query method (anything named get* or execute* taking the SQL as first parameter).
+ * A proxy is used so we don't have to mirror the whole idb interface, the other methods are passed straight through.
+ * Async variants are timed until their future completes, which includes time spent queued on the idb executor.
+ * */
+@RequiredArgsConstructor
+final class InstrumentedDatabase implements InvocationHandler {
+    private final Database database;
+    private final SQLStatistics statistics;
+
+    static Database wrap(Database database, SQLStatistics statistics) {
+        return (Database) Proxy.newProxyInstance(Database.class.getClassLoader(), new Class<?>[]{Database.class},
+                new InstrumentedDatabase(database, statistics));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if(!isQuery(method, args)) return forward(method, args);
+
+        String sql = (String) args[0];
+        boolean update = isUpdate(method);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = forward(method, args);
+        } catch (Throwable t) {
+            statistics.record(sql, System.nanoTime() - start, 0, true);
+            throw t;
+        }
+
+        if(result instanceof CompletableFuture) {
+            return ((CompletableFuture<?>) result).whenComplete((r, t) ->
+                    statistics.record(sql, System.nanoTime() - start, rowCount(update, r), t != null));
+        }
+        statistics.record(sql, System.nanoTime() - start, rowCount(update, result), false);
+        return result;
+    }
+
+    private Object forward(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(database, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isQuery(Method method, Object[] args) {
+        if(args == null || args.length == 0 || !(args[0] instanceof String)) return false;
+        String name = method.getName();
+        return name.startsWith("get") || name.startsWith("execute");
+    }
+
+    //executeUpdate and executeUpdateAsync, the only ones whose number result is an affected row count
+    private static boolean isUpdate(Method method) {
+        return method.getName().startsWith("executeUpdate");
+    }
+
+    /**
+     * Result lists count their rows and update methods return the affected row count,
+     * anything else (a single row, a column value or an insert id) is one row if present.
+     * */
+    private static long rowCount(boolean update, Object result) {
+        if(result instanceof Collection) return ((Collection<?>) result).size();
+        if(update && result instanceof Integer) return (Integer) result;
+        return result == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,242 @@
+package com.dndcraft.atlas.io.sql;
+
+import com.dndcraft.atlas.Atlas;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent key-value storage for plugins that don't need their own tables, get one through {@link SQLHandler#keyValueStore(String)}.
+ * Reads are served from an in-memory LRU cache (misses are cached too) and writes are batched to the database in the background.
+ * Writes are visible to reads straight away, they just reach the database up to a second later.
+ * @ApiNote A cache miss does a blocking query, if you read cold keys on the main thread prefer {@link #getAll(Collection)} to load them in one go.
+ * Call {@link #flush()} on plugin disable so nothing pending gets lost.
+ * Reads that miss the cache throw an IllegalStateException when the database can't be read, rather than report the key as absent.
+ * @Author Nickrocky
+ * */
+public final class KeyValueStore {
+    static final String TABLE = "atlas_kv";
+    private static final int MAX_CACHED_KEYS = 10_000;
+    private static final int MAX_KEYS_PER_QUERY = 500;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Atlas-KeyValue-Flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SQLHandler handler;
+    private final String namespace;
+
+    //Optional.empty() means the key is known to be absent, or pending removal
+    private final Cache<String, Optional<String>> cache = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_KEYS).build();
+    private final Map<String, Optional<String>> pending = new ConcurrentHashMap<>();
+
+    KeyValueStore(SQLHandler handler, String namespace) {
+        this.handler = handler;
+        this.namespace = namespace;
+        FLUSHER.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static SchemaMigrator migrations(SQLHandler handler) {
+        return handler.migrations("Atlas_KeyValue")
+                .version(1, "CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                        + "namespace VARCHAR(64) NOT NULL, "
+                        + "k VARCHAR(191) NOT NULL, "
+                        + "v TEXT NOT NULL, "
+                        + "PRIMARY KEY (namespace, k)) " + handler.end());
+    }
+
+    /* READS */
+
+    /**
+     * @throws IllegalStateException if the key wasn't cached and could not be read from the database
+     * */
+    public Optional<String> get(String key) {
+        Optional<String> known = pending.get(key);
+        if(known == null) known = cache.getIfPresent(key);
+        if(known != null) return known;
+
+        Map<String, Optional<String>> loaded = load(Collections.singletonList(key));
+        return loaded.getOrDefault(key, Optional.empty());
+    }
+
+    public String getString(String key, String def) {
+        return get(key).orElse(def);
+    }
+
+    public int getInt(String key, int def) {
+        return get(key).map(Ints::tryParse).orElse(def);
+    }
+
+    public long getLong(String key, long def) {
+        return get(key).map(Longs::tryParse).orElse(def);
+    }
+
+    public double getDouble(String key, double def) {
+        return get(key).map(Doubles::tryParse).orElse(def);
+    }
+
+    public boolean getBoolean(String key, boolean def) {
+        return get(key).map(Boolean::parseBoolean).orElse(def);
+    }
+
+    @Nullable
+    public UUID getUUID(String key) {
+        return get(key).map(UUID::fromString).orElse(null);
+    }
+
+    public boolean contains(String key) {
+        return get(key).isPresent();
+    }
+
+    /**
+     * Gets many keys at once, loading every uncached key in as few queries as possible
+     * @param keys the keys to look up
+     * @return the values of every key that exists, absent keys are left out
+     * @throws IllegalStateException if uncached keys could not be read from the database
+     * */
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> result = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for(String key : keys) {
+            Optional<String> known = pending.get(key);
+            if(known == null) known = cache.getIfPresent(key);
+            if(known == null) missing.add(key);
+            else known.ifPresent(v -> result.put(key, v));
+        }
+
+        if(!missing.isEmpty()) load(missing).forEach((k, v) -> v.ifPresent(value -> result.put(k, value)));
+        return result;
+    }
+
+    /* WRITES */
+
+    public void set(String key, String value) {
+        if(value == null) {
+            remove(key);
+            return;
+        }
+        write(key, Optional.of(value));
+    }
+
+    public void set(String key, long value) {
+        set(key, String.valueOf(value));
+    }
+
+    public void set(String key, double value) {
+        set(key, String.valueOf(value));
+    }
+
+    public void set(String key, boolean value) {
+        set(key, String.valueOf(value));
+    }
+
+    public void set(String key, UUID value) {
+        set(key, value == null ? null : value.toString());
+    }
+
+    public void putAll(Map<String, ?> values) {
+        values.forEach((k, v) -> set(k, v == null ? null : String.valueOf(v)));
+    }
+
+    public void remove(String key) {
+        write(key, Optional.empty());
+    }
+
+    private void write(String key, Optional<String> value) {
+        pending.compute(key, (k, old) -> { //Under the key's lock, so a load finishing at the same time can't slip in between
+            cache.put(k, value);
+            return value;
+        });
+    }
+
+    /**
+     * Writes everything pending to the database in a single transaction. Happens every second on its own.
+     * If the write fails everything stays pending and is retried on the next flush.
+     * */
+    public synchronized void flush() {
+        if(pending.isEmpty()) return;
+        Map<String, Optional<String>> batch = new HashMap<>(pending);
+
+        try(Connection connection = handler.primary().getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try(PreparedStatement upsert = connection.prepareStatement("REPLACE INTO " + TABLE + " (namespace, k, v) VALUES (?, ?, ?)");
+                PreparedStatement delete = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE namespace = ? AND k = ?")) {
+                for(var entry : batch.entrySet()) {
+                    PreparedStatement statement = entry.getValue().isPresent() ? upsert : delete;
+                    statement.setString(1, namespace);
+                    statement.setString(2, entry.getKey());
+                    if(entry.getValue().isPresent()) statement.setString(3, entry.getValue().get());
+                    statement.addBatch();
+                }
+                upsert.executeBatch();
+                delete.executeBatch();
+                connection.commit();
+                handler.wrote();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            Atlas.get().getLogger().severe("[Atlas] Could not write " + batch.size() + " key-value entries for " + namespace + ", retrying later: " + e.getMessage());
+            return;
+        }
+
+        //Only forget what we wrote, keys changed in the meantime stay pending
+        batch.forEach(pending::remove);
+    }
+
+    private Map<String, Optional<String>> load(List<String> keys) {
+        Map<String, Optional<String>> loaded = new HashMap<>();
+        for(List<String> chunk : Iterables.partition(keys, MAX_KEYS_PER_QUERY)) {
+            String in = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            try(Connection connection = handler.primary().getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT k, v FROM " + TABLE + " WHERE namespace = ? AND k IN (" + in + ")")) {
+                statement.setString(1, namespace);
+                for(int i = 0; i < chunk.size(); i++) statement.setString(i + 2, chunk.get(i));
+                try(ResultSet rs = statement.executeQuery()) {
+                    while(rs.next()) loaded.put(rs.getString(1), Optional.of(rs.getString(2)));
+                }
+            } catch (SQLException e) {
+                //Don't cache anything on failure, the next read should try again. Never answer "absent" for a key we couldn't read,
+                //a caller writing on that answer would overwrite what's really stored
+                throw new IllegalStateException("Could not read key-value entries for " + namespace, e);
+            }
+            for(String key : chunk) loaded.putIfAbsent(key, Optional.empty());
+        }
+
+        //A write may have come in while we were loading, never let the database value overwrite it. Writes take the same
+        //per-key lock in pending and put into the cache, so one that's pending or was flushed in the meantime is seen here
+        loaded.forEach((k, v) -> pending.compute(k, (key, written) -> {
+            if(written == null) cache.asMap().putIfAbsent(key, v);
+            return written;
+        }));
+        return loaded;
+    }
+}
@@ -0,0 +1,136 @@
+package com.dndcraft.atlas.io.sql;
+
+import co.aikar.idb.Database;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Setter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Routes SELECTs made through the Database get* methods to read replicas, everything else goes to the primary.
+ * Locking reads (FOR UPDATE, FOR SHARE, LOCK IN SHARE MODE) stay on the primary, replicas can't lock the primary's rows.
+ * idb transactions run on a single DbStatement and never pass through here, so routed reads are always outside a transaction.
+ * */
+final class ReadRouter implements InvocationHandler {
+    private static final Pattern LOCKING_READ = Pattern.compile("\\bFOR\\s+(UPDATE|SHARE)\\b|\\bLOCK\\s+IN\\s+SHARE\\s+MODE\\b", Pattern.CASE_INSENSITIVE);
+
+    private final Database primary;
+    private final List<Database> replicas;
+    private final List<HikariPoolMXBean> replicaPools = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+    @Setter private volatile ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+    private volatile long readYourWritesNanos = 0;
+
+    /**
+     * @param primary the (instrumented) primary database
+     * @param replicas the (instrumented) replica databases
+     * @param pools the raw replica databases, in the same order, used to inspect their pools
+     * */
+    ReadRouter(Database primary, List<Database> replicas, List<Database> pools) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        for(Database pool : pools) replicaPools.add(SQLStatistics.findPool(pool));
+    }
+
+    Database proxy() {
+        return (Database) Proxy.newProxyInstance(Database.class.getClassLoader(), new Class<?>[]{Database.class}, this);
+    }
+
+    /**
+     * @return the primary, noting writes made through it for the read-your-writes window
+     * */
+    Database primaryProxy() {
+        return (Database) Proxy.newProxyInstance(Database.class.getClassLoader(), new Class<?>[]{Database.class}, (proxy, method, args) -> {
+            if(isWrite(method)) markWrite();
+            return call(primary, method, args);
+        });
+    }
+
+    void setReadYourWritesWindow(long duration, TimeUnit unit) {
+        this.readYourWritesNanos = unit.toNanos(duration);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Database target = primary;
+        if(isSelect(method, args)) {
+            target = pickReplica();
+        } else if(isWrite(method)) {
+            markWrite();
+        }
+        return call(target, method, args);
+    }
+
+    /**
+     * Keeps this thread on the primary for the read-your-writes window, for writes that don't go through a proxy
+     * */
+    void markWrite() {
+        if(readYourWritesNanos > 0) lastWrite.set(System.nanoTime());
+    }
+
+    private static Object call(Database target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean isWrite(Method method) {
+        return method.getName().startsWith("execute") || method.getName().startsWith("createTransaction");
+    }
+
+    /**
+     * @return the replica the next read should go to, or the primary if there are none or this thread wrote recently
+     * */
+    Database pickReplica() {
+        if(replicas.isEmpty() || recentlyWrote()) return primary;
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        if(selection == ReplicaSelection.ROUND_ROBIN) return replicas.get(start);
+
+        int best = start;
+        int bestLoad = Integer.MAX_VALUE;
+        for(int i = 0; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            HikariPoolMXBean pool = replicaPools.get(candidate);
+            if(pool == null) return replicas.get(start);
+            int load = pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            if(load < bestLoad) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        return replicas.get(best);
+    }
+
+    /**
+     * @return whether the statement is a plain read that may run on a replica
+     * */
+    static boolean isSelect(String sql) {
+        int i = 0;
+        while(i < sql.length() && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '(')) i++;
+        return sql.regionMatches(true, i, "SELECT", 0, 6) && !LOCKING_READ.matcher(sql).find();
+    }
+
+    private static boolean isSelect(Method method, Object[] args) {
+        if(args == null || args.length == 0 || !(args[0] instanceof String)) return false;
+        return method.getName().startsWith("get") && isSelect((String) args[0]);
+    }
+
+    private boolean recentlyWrote() {
+        long window = readYourWritesNanos;
+        if(window <= 0) return false;
+        Long wrote = lastWrite.get();
+        return wrote != null && System.nanoTime() - wrote < window;
+    }
+}
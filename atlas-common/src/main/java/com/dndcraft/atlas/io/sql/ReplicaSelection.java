@@ -0,0 +1,11 @@
+package com.dndcraft.atlas.io.sql;
+
+/**
+ * How {@link SQLHandler} spreads reads over its read replicas
+ * */
+public enum ReplicaSelection {
+    /** Every read goes to the next replica in line */
+    ROUND_ROBIN,
+    /** Every read goes to the replica with the fewest connections in use, falls back to round robin if pools can't be inspected */
+    LEAST_LOADED
+}
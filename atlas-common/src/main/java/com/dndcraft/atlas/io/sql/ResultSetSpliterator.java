@@ -0,0 +1,81 @@
+package com.dndcraft.atlas.io.sql;
+
+import lombok.Getter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Walks a forward-only ResultSet one row at a time, so only the rows the driver has fetched are ever held in memory.
+ * The connection, statement and result set are released as soon as the rows run out or the owning stream is closed,
+ * whichever comes first. Rows may be null if the mapper returns null.
+ * If reading or mapping a row fails, the resources are released and an {@link UncheckedSQLException} is thrown.
+ * */
+final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+
+    private boolean closed = false;
+    @Getter private boolean failed = false;
+    @Getter private long rowsRead = 0;
+    @Getter private long fetchNanos = 0; //Time spent in ResultSet.next(), where the driver fetches from the database
+
+    ResultSetSpliterator(Connection connection, PreparedStatement statement, ResultSet resultSet, RowMapper<T> mapper) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @throws UncheckedSQLException if the row could not be read or mapped
+     * */
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if(closed) return false;
+        T row;
+        try {
+            long start = System.nanoTime();
+            boolean hasRow = resultSet.next();
+            fetchNanos += System.nanoTime() - start;
+            if(!hasRow) {
+                close();
+                return false;
+            }
+            rowsRead++;
+            row = mapper.map(resultSet);
+        } catch (SQLException e) {
+            failed = true;
+            close();
+            throw new UncheckedSQLException("Could not read row " + (rowsRead + 1) + " of a streamed query", e);
+        }
+        action.accept(row);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if(closed) return;
+        closed = true;
+        closeQuietly(resultSet);
+        closeQuietly(statement);
+        closeQuietly(connection);
+    }
+
+    static void closeQuietly(AutoCloseable closeable) {
+        if(closeable == null) return;
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            //Nothing sensible to do here, the resource is being discarded anyway
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dndcraft.atlas.io.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the row currently under the cursor of a {@link ResultSet} into an object.
+ * Implementations should only read the current row and never move the cursor themselves.
+ * @Author Nickrocky
+ * */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T map(ResultSet row) throws SQLException;
+
+}
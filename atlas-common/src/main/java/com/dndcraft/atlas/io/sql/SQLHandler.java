@@ -12,6 +12,20 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @Author Commissar_Voop, Nickrocky
@@ -27,6 +41,9 @@ enum SQLType {
 public final class SQLHandler {
 
     @Getter private Database database;
+    @Getter private Database primary;
+    @Nullable ReadRouter router;
+    final Map<String, KeyValueStore> keyValueStores = new ConcurrentHashMap<>();
     @Getter private final SQLType sqlType;
     @Getter private DatabaseOptions databaseOptions;
     @Nullable @Getter private File SQLiteFile;
@@ -34,30 +51,43 @@ public final class SQLHandler {
 
     @Nullable protected String SQL_END = null;
 
+    @Getter int fetchSize = 500;
+    @Getter final SQLStatistics statistics = new SQLStatistics();
+
     /**
      * SQLHandler is a basic tool makes connecting to SQL based database with ease. SQLHandler uses Aikar DB.
      * @param sqlType Determines what kind of connection SQL is going to be made to a server or a local file (SQLite)
      * @param SQLiteFile This can be nullable this is used then sqlType is set to SQLite. This also should auto create the SQLite File
      * @param mySQLDetails This is only used when sqlType is set MySQL, this is used for connecting to SQL Server Database.
+     * @param replicaDetails Read replicas of the MySQL Database, each gets its own connection pool. Empty for no replicas.
      */
-    private SQLHandler(SQLType sqlType,@Nullable File SQLiteFile,@Nullable MySQLDetails mySQLDetails) {
+    private SQLHandler(SQLType sqlType,@Nullable File SQLiteFile,@Nullable MySQLDetails mySQLDetails, List<MySQLDetails> replicaDetails) {
         this.sqlType = sqlType;
         this.SQLiteFile = SQLiteFile;
         this.mySQLDetails = mySQLDetails;
         if (this.sqlType.equals(SQLType.MySQL)){
-            this.databaseOptions = DatabaseOptions.builder().mysql(this.mySQLDetails.USERNAME(),
-                    this.mySQLDetails.PASSWORD(),
-                    this.mySQLDetails.DATABASE(),
-                    this.mySQLDetails.HOSTNAME()+":"+this.mySQLDetails.PORT()).build();
-            this.database = PooledDatabaseOptions.builder().options(this.databaseOptions).createHikariDatabase();
-            return;
+            this.databaseOptions = mysqlOptions(this.mySQLDetails);
         }
         if (this.sqlType.equals(SQLType.SQLite)){
-
             this.databaseOptions = DatabaseOptions.builder().sqlite(SQLiteFile.getPath()).build();
-            this.database = PooledDatabaseOptions.builder().options(this.databaseOptions).createHikariDatabase();
-            return;
         }
+        Database pooled = PooledDatabaseOptions.builder().options(this.databaseOptions).createHikariDatabase();
+        this.statistics.registerPool("primary", pooled);
+        this.primary = InstrumentedDatabase.wrap(pooled, this.statistics);
+        this.database = this.primary;
+        if (replicaDetails.isEmpty()) return;
+
+        List<Database> replicaPools = new ArrayList<>();
+        List<Database> replicas = new ArrayList<>();
+        for (MySQLDetails details : replicaDetails) {
+            Database replicaPool = PooledDatabaseOptions.builder().options(mysqlOptions(details)).createHikariDatabase();
+            this.statistics.registerPool("replica-" + details.HOSTNAME() + ":" + details.PORT(), replicaPool);
+            replicaPools.add(replicaPool);
+            replicas.add(InstrumentedDatabase.wrap(replicaPool, this.statistics));
+        }
+        this.router = new ReadRouter(this.primary, replicas, replicaPools);
+        this.database = this.router.proxy();
+        this.primary = this.router.primaryProxy();
     }
 
     /**
@@ -65,7 +95,7 @@ public final class SQLHandler {
      * @param SQLiteFile This can be nullable this is used then sqlType is set to SQLite. This also should auto create the SQLite File
      * */
     public SQLHandler(File SQLiteFile){
-        this(SQLType.SQLite, SQLiteFile, null);
+        this(SQLType.SQLite, SQLiteFile, null, Collections.emptyList());
     }
 
     /**
@@ -81,7 +111,55 @@ public final class SQLHandler {
      * @param mySQLDetails This is only used when sqlType is set MySQL, this is used for connecting to SQL Server Database.
      * */
     public SQLHandler(MySQLDetails mySQLDetails){
-        this(SQLType.MySQL, null, mySQLDetails);
+        this(SQLType.MySQL, null, mySQLDetails, Collections.emptyList());
+    }
+
+    /**
+     * MySQL Constructor with read replicas.
+     * SELECTs made through database().get*() are spread over the replicas, everything else (and all transactions) uses the primary.
+     * Use {@link #primary()} when a read has to see a write that was just made, or see {@link #setReadYourWritesWindow(long, TimeUnit)}.
+     * @param primary The database all writes go to
+     * @param replicas Read replicas of the primary, each gets its own connection pool
+     * */
+    public SQLHandler(MySQLDetails primary, List<MySQLDetails> replicas){
+        this(SQLType.MySQL, null, primary, List.copyOf(replicas));
+    }
+
+    private static DatabaseOptions mysqlOptions(MySQLDetails details) {
+        return DatabaseOptions.builder().mysql(details.USERNAME(),
+                details.PASSWORD(),
+                details.DATABASE(),
+                details.HOSTNAME()+":"+details.PORT()).build();
+    }
+
+    /**
+     * Gets a database to read from which is explicitly allowed to lag behind the primary.
+     * @return the next replica to read from, or the primary if there are no replicas configured
+     */
+    public Database replica() {
+        if (this.router == null) return this.primary;
+        return this.router.pickReplica();
+    }
+
+    /**
+     * Sets how reads are spread over the replicas, round robin by default
+     * @param selection the strategy to use
+     */
+    public void setReplicaSelection(ReplicaSelection selection) {
+        if (this.router != null) this.router.setSelection(selection);
+    }
+
+    /**
+     * Makes a thread read from the primary for a while after it wrote something, so it always sees its own writes
+     * even when the replicas are lagging behind. Off by default.
+     * Writes made through {@link #database()}, {@link #primary()}, {@link #stream(String, RowMapper, Object...)} and
+     * key-value stores count. Writes made on a raw Connection from primary().getConnection() can't be seen,
+     * read through primary() right after those.
+     * @param duration how long after a write the thread sticks to the primary, 0 to turn it off
+     * @param unit the unit of the duration
+     */
+    public void setReadYourWritesWindow(long duration, TimeUnit unit) {
+        if (this.router != null) this.router.setReadYourWritesWindow(duration, unit);
     }
 
     /**
@@ -99,6 +177,122 @@ public final class SQLHandler {
         this.SQL_END = null;
     }
 
+    /**
+     * Sets how many rows the driver should pull from the database per round trip when streaming
+     * @param fetchSize the amount of rows per fetch, MySQL ignores this as it always streams row by row
+     */
+    public void setFetchSize(int fetchSize) {
+        if(fetchSize < 1) throw new IllegalArgumentException("Fetch size must be at least 1, was " + fetchSize);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Runs a query and lazily maps every row through the given mapper instead of loading the whole result set into memory.
+     * Use this over database().getResults() for anything that could return a lot of rows (history, audit logs, etc.)
+     * @ApiNote The stream holds onto a pooled connection until it is exhausted or closed, ALWAYS use it in a try-with-resources block
+     * @param query the SQL query, using ? for parameters
+     * @param mapper turns the current row into an object, this must not move the cursor
+     * @param params the parameters bound to the query in order
+     * @return a sequential stream of mapped rows that must be closed. Reading it throws an {@link UncheckedSQLException}
+     * if a row can't be fetched or mapped. The query's recorded latency is the execution plus the time spent fetching rows,
+     * what the caller does with them isn't counted.
+     * @throws SQLException if the query could not be prepared or executed
+     */
+    public <T> Stream<T> stream(String query, RowMapper<T> mapper, Object... params) throws SQLException {
+        boolean select = ReadRouter.isSelect(query);
+        if (!select) wrote();
+        Database source = select ? replica() : this.primary;
+        Connection connection = source.getConnection();
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(streamingFetchSize());
+            for(int i = 0; i < params.length; i++) statement.setObject(i+1, params[i]);
+            long start = System.nanoTime();
+            ResultSetSpliterator<T> rows = new ResultSetSpliterator<>(connection, statement, statement.executeQuery(), mapper);
+            long executed = System.nanoTime() - start;
+            return StreamSupport.stream(rows, false).onClose(()->{
+                rows.close();
+                this.statistics.record(query, executed + rows.getFetchNanos(), rows.getRowsRead(), rows.isFailed());
+            });
+        } catch (SQLException e) {
+            this.statistics.record(query, 0, 0, true);
+            ResultSetSpliterator.closeQuietly(statement);
+            ResultSetSpliterator.closeQuietly(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a query and hands every mapped row to the callback as it is read, releasing the connection once done.
+     * @param query the SQL query, using ? for parameters
+     * @param mapper turns the current row into an object, this must not move the cursor
+     * @param action called once for every mapped row
+     * @param params the parameters bound to the query in order
+     * @return the amount of rows that were processed
+     * @throws SQLException if the query could not be prepared or executed, or a row could not be read
+     */
+    public <T> long forEachRow(String query, RowMapper<T> mapper, Consumer<? super T> action, Object... params) throws SQLException {
+        long processed = 0;
+        try(Stream<T> rows = stream(query, mapper, params)) {
+            Iterator<T> iter = rows.iterator();
+            while(iter.hasNext()) {
+                action.accept(iter.next());
+                processed++;
+            }
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+        return processed;
+    }
+
+    /**
+     * Notes a write made on a raw primary connection, for the read-your-writes window
+     * */
+    void wrote() {
+        if (this.router != null) this.router.markWrite();
+    }
+
+    /**
+     * Creates a schema migrator for a plugin's tables on this database, see {@link SchemaMigrator}
+     * @param owner unique name the schema version is stored under, usually the plugin name
+     * @return a new migrator to register versions on
+     */
+    public SchemaMigrator migrations(String owner) {
+        return new SchemaMigrator(this, owner);
+    }
+
+    /**
+     * Gets the shared key-value store for a namespace, creating its table on first use
+     * @param namespace unique name to keep your keys apart from other plugins, usually the plugin name
+     * @return the same store for every call with the same namespace
+     * @throws SQLException if the key-value table could not be created
+     */
+    public synchronized KeyValueStore keyValueStore(String namespace) throws SQLException {
+        KeyValueStore store = keyValueStores.get(namespace);
+        if (store != null) return store;
+        if (keyValueStores.isEmpty()) KeyValueStore.migrations(this).migrate();
+        store = new KeyValueStore(this, namespace);
+        keyValueStores.put(namespace, store);
+        return store;
+    }
+
+    /**
+     * Writes everything still pending in any key-value store to the database, call this on shutdown
+     */
+    public void flushKeyValueStores() {
+        keyValueStores.values().forEach(KeyValueStore::flush);
+    }
+
+    /**
+     * MySQL Connector/J only streams results when the fetch size is Integer.MIN_VALUE on a forward only, read only statement,
+     * any other value makes it buffer the entire result set client side.
+     */
+    private int streamingFetchSize() {
+        if (this.sqlType.equals(SQLType.MySQL)) return Integer.MIN_VALUE;
+        return this.fetchSize;
+    }
+
     /**
      * Create SQLite File - If your honestly that lazy...
      * */
@@ -0,0 +1,158 @@
+package com.dndcraft.atlas.io.sql;
+
+import co.aikar.idb.Database;
+import com.dndcraft.atlas.Atlas;
+import com.dndcraft.atlas.util.LatencyHistogram;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-query latency, row and error statistics for everything that goes through a {@link SQLHandler}, plus gauges for its connection pools.
+ * Queries are keyed by their SQL text, so always bind values with ? parameters instead of concatenating them in,
+ * otherwise every distinct value ends up in the same overflow bucket.
+ * @Author Nickrocky
+ * */
+public final class SQLStatistics {
+    private static final int MAX_TRACKED_QUERIES = 512;
+    private static final String UNTRACKED = "<untracked queries>";
+
+    private final Map<String, QueryStats> queries = new ConcurrentHashMap<>();
+    private final Map<String, Database> pools = new ConcurrentHashMap<>();
+    private final Map<String, HikariPoolMXBean> poolBeans = new ConcurrentHashMap<>();
+
+    private volatile long slowQueryNanos = Duration.ofMillis(250).toNanos();
+
+    /**
+     * Sets how long a query may take before it gets logged as slow
+     * @param threshold the threshold, zero or negative disables the slow query log
+     * */
+    public void setSlowQueryThreshold(Duration threshold) {
+        this.slowQueryNanos = threshold.toNanos();
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return Duration.ofNanos(slowQueryNanos);
+    }
+
+    void record(String sql, long nanos, long rows, boolean failed) {
+        QueryStats stats = queries.get(sql);
+        if(stats == null) {
+            String key = queries.size() < MAX_TRACKED_QUERIES ? sql : UNTRACKED;
+            stats = queries.computeIfAbsent(key, QueryStats::new);
+        }
+        stats.latency.record(nanos);
+        if(rows > 0) stats.rows.add(rows);
+        if(failed) stats.errors.increment();
+
+        long threshold = slowQueryNanos;
+        if(threshold > 0 && nanos >= threshold)
+            Atlas.get().getLogger().warning("[Atlas] Slow query took " + Duration.ofNanos(nanos).toMillis() + "ms: " + sql);
+    }
+
+    void registerPool(String name, Database database) {
+        pools.put(name, database);
+    }
+
+    /**
+     * @return every tracked query, slowest in total time spent first
+     * */
+    public List<QueryStats> getQueries() {
+        List<QueryStats> result = new ArrayList<>(queries.values());
+        result.sort(Comparator.comparingLong((QueryStats q) -> q.getLatency().getTotalNanos()).reversed());
+        return result;
+    }
+
+    /**
+     * @return a snapshot of every connection pool by name, pools that can't be inspected are left out
+     * */
+    public Map<String, PoolSnapshot> getPools() {
+        Map<String, PoolSnapshot> result = new LinkedHashMap<>();
+        pools.forEach((name, database) -> {
+            HikariPoolMXBean bean = poolBeans.computeIfAbsent(name, $ -> findPool(database));
+            if(bean != null) result.put(name, new PoolSnapshot(bean.getActiveConnections(), bean.getIdleConnections(),
+                    bean.getTotalConnections(), bean.getThreadsAwaitingConnection()));
+        });
+        return result;
+    }
+
+    public void reset() {
+        queries.clear();
+    }
+
+    /**
+     * Writes every tracked query as CSV, for digging through outside of the game
+     * @param file the file to (over)write
+     * */
+    public void export(File file) throws IOException {
+        try(PrintWriter out = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            out.println("sql,count,errors,rows,mean_ms,p50_ms,p95_ms,p99_ms,max_ms,total_ms");
+            for(QueryStats q : getQueries()) {
+                LatencyHistogram l = q.getLatency();
+                out.printf("\"%s\",%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        q.getSql().replace("\"", "\"\""), l.getCount(), q.getErrors(), q.getRows(),
+                        l.getMeanMillis(), l.getPercentileMillis(50), l.getPercentileMillis(95), l.getPercentileMillis(99),
+                        l.getMaxMillis(), l.getTotalNanos() / 1_000_000.0);
+            }
+        }
+    }
+
+    /**
+     * idb doesn't hand out its Hikari pool, so we go looking for it in the database object itself
+     * */
+    static HikariPoolMXBean findPool(Database database) {
+        for(Class<?> c = database.getClass(); c != null; c = c.getSuperclass()) {
+            for(Field field : c.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || !field.getType().isAssignableFrom(HikariDataSource.class)) continue;
+                try {
+                    field.setAccessible(true);
+                    Object value = field.get(database);
+                    if(value instanceof HikariDataSource) return ((HikariDataSource) value).getHikariPoolMXBean();
+                } catch (ReflectiveOperationException | RuntimeException ignored) {
+                    //Not accessible, keep looking
+                }
+            }
+        }
+        return null;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class QueryStats {
+        private final String sql;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        @Getter(AccessLevel.NONE) private final LongAdder rows = new LongAdder();
+        @Getter(AccessLevel.NONE) private final LongAdder errors = new LongAdder();
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+
+    @Value
+    public static class PoolSnapshot {
+        int active, idle, total, waiting;
+    }
+}
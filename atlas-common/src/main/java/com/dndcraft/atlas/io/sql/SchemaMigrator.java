@@ -0,0 +1,162 @@
+package com.dndcraft.atlas.io.sql;
+
+import com.dndcraft.atlas.Atlas;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang.Validate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of which version of its tables a plugin is on and applies the missing migrations in order, exactly once.
+ * Every plugin sharing a SQLHandler gets its own row in the atlas_schema_version table, keyed by the owner name.
+ * When nothing changed since the last startup, {@link #migrate()} costs a single query.
+ * <pre>
+ * Atlas.getSQLHandler().migrations("MyPlugin")
+ *     .version(1, "CREATE TABLE my_table (id INT PRIMARY KEY)")
+ *     .version(2, "ALTER TABLE my_table ADD COLUMN name VARCHAR(16)")
+ *     .migrate();
+ * </pre>
+ * @ApiNote MySQL commits DDL (CREATE/ALTER/DROP) implicitly, so only SQLite can roll back a half applied DDL migration.
+ * Keep each version to a single DDL statement on MySQL.
+ * @Author Nickrocky
+ * */
+@RequiredArgsConstructor
+public final class SchemaMigrator {
+    private static final String VERSION_TABLE = "atlas_schema_version";
+
+    private final SQLHandler handler;
+    private final String owner;
+    private final TreeMap<Integer, Migration> migrations = new TreeMap<>();
+
+    /**
+     * A single step in the schema history of a plugin, ran inside a transaction on the given connection.
+     * */
+    @FunctionalInterface
+    public interface Migration {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * Registers the SQL statements that bring the schema from version-1 up to this version
+     * @param version the version this migration results in, must be positive and unique
+     * @param statements the statements to run in order
+     * @return this migrator for chaining
+     * */
+    public SchemaMigrator version(int version, String... statements) {
+        Validate.notEmpty(statements, "Migration " + version + " for " + owner + " has no statements");
+        return version(version, connection -> {
+            try(Statement statement = connection.createStatement()) {
+                for(String sql : statements) statement.execute(sql);
+            }
+        });
+    }
+
+    /**
+     * Registers a migration which does its own work on the connection, for data migrations that need Java logic
+     * @param version the version this migration results in, must be positive and unique
+     * @param migration the work to do, do NOT commit or close the connection
+     * @return this migrator for chaining
+     * */
+    public SchemaMigrator version(int version, Migration migration) {
+        Validate.isTrue(version > 0, "Schema versions start at 1, got " + version);
+        if(migrations.putIfAbsent(version, migration) != null)
+            throw new IllegalStateException("Schema version " + version + " was registered twice for " + owner);
+        return this;
+    }
+
+    /**
+     * Applies every registered migration newer than the version stored in the database, each in its own transaction.
+     * @return the schema version the owner is on after migrating
+     * @throws SQLException if a migration failed, that migration is rolled back and later ones are not attempted
+     * */
+    public int migrate() throws SQLException {
+        try(Connection connection = handler.database().getConnection()) {
+            int current = currentVersion(connection);
+            int latest = migrations.isEmpty() ? 0 : migrations.lastKey();
+            if(current >= latest) return current;
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for(var entry : migrations.entrySet()) {
+                    int version = entry.getKey();
+                    if(version <= current) continue;
+                    apply(connection, version, entry.getValue(), current);
+                    current = version;
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+            Atlas.get().getLogger().info("[Atlas] Schema of " + owner + " is now on version " + current);
+            return current;
+        }
+    }
+
+    private void apply(Connection connection, int version, Migration migration, int previous) throws SQLException {
+        try {
+            migration.apply(connection);
+            storeVersion(connection, version, previous == 0);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            Atlas.get().getLogger().severe("[Atlas] Schema migration " + version + " for " + owner + " failed and was rolled back!");
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the stored version straight away, only creating the version table when that read fails.
+     * This is what keeps an up-to-date startup at one query.
+     * The read is repeated after creating the table, so a failure that wasn't a missing table (a dropped connection,
+     * a lock timeout) is thrown instead of mistaken for version 0, which would rerun every migration.
+     * */
+    private int currentVersion(Connection connection) throws SQLException {
+        try {
+            return readVersion(connection);
+        } catch (SQLException maybeMissingTable) {
+            try(Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " ("
+                        + "owner VARCHAR(64) NOT NULL PRIMARY KEY, "
+                        + "version INT NOT NULL, "
+                        + "applied_at BIGINT NOT NULL) " + handler.end());
+            } catch (SQLException e) {
+                e.addSuppressed(maybeMissingTable);
+                throw e;
+            }
+
+            try {
+                return readVersion(connection);
+            } catch (SQLException e) {
+                e.addSuppressed(maybeMissingTable);
+                throw e;
+            }
+        }
+    }
+
+    private int readVersion(Connection connection) throws SQLException {
+        try(PreparedStatement statement = connection.prepareStatement("SELECT version FROM " + VERSION_TABLE + " WHERE owner = ?")) {
+            statement.setString(1, owner);
+            try(ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private void storeVersion(Connection connection, int version, boolean firstVersion) throws SQLException {
+        String sql = firstVersion
+                ? "INSERT INTO " + VERSION_TABLE + " (version, applied_at, owner) VALUES (?, ?, ?)"
+                : "UPDATE " + VERSION_TABLE + " SET version = ?, applied_at = ? WHERE owner = ?";
+        try(PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, version);
+            statement.setLong(2, System.currentTimeMillis());
+            statement.setString(3, owner);
+            statement.executeUpdate();
+        }
+    }
+}
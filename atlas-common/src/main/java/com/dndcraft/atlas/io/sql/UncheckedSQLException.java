@@ -0,0 +1,19 @@
+package com.dndcraft.atlas.io.sql;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a SQLException thrown where checked exceptions can't go, like while a {@link SQLHandler#stream} is being consumed.
+ * @Author Nickrocky
+ * */
+public class UncheckedSQLException extends RuntimeException {
+
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,53 @@
+package com.dndcraft.atlas.util;
+
+import com.dndcraft.atlas.Atlas;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Atlas' own worker pool for blocking work (database, HTTP, file IO) that shouldn't hold up the server thread,
+ * plus a shortcut to hop back onto the server thread once that work is done.
+ * @ApiNote Only ever submit work that finishes, this pool is shared by every plugin using Atlas.
+ * @Author Nickrocky
+ * */
+public final class AtlasWorkers {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+        Thread thread = new Thread(r, "Atlas-Worker-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AtlasWorkers() {}
+
+    /**
+     * @return the shared worker pool
+     * */
+    public static ExecutorService pool() {
+        return POOL;
+    }
+
+    /**
+     * @return an executor that runs tasks on the server thread, see {@link Atlas#mainThreadExecutor()}
+     * */
+    public static Executor mainThread() {
+        return Atlas.get().mainThreadExecutor();
+    }
+
+    /**
+     * Stops accepting new work and gives what's running a few seconds to finish. Call on shutdown.
+     * */
+    public static void shutdown() {
+        POOL.shutdown();
+        try {
+            if(!POOL.awaitTermination(5, TimeUnit.SECONDS)) POOL.shutdownNow();
+        } catch (InterruptedException e) {
+            POOL.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.dndcraft.atlas.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed bucket latency histogram that is cheap enough to record into from any thread on every call.
+ * Buckets go from 50μs up to 1s on a rough 1-2.5-5 scale, anything slower lands in the last bucket.
+ * Percentiles are estimated as the upper bound of the bucket they fall in, which is plenty to spot the slow stuff.
+ * @Author Nickrocky
+ * */
+public final class LatencyHistogram {
+    private static final long[] BOUNDS_NANOS = {
+            50_000L, 100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L, 1_000_000_000L, Long.MAX_VALUE};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for(int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while(nanos > BOUNDS_NANOS[i]) i++;
+        buckets[i].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    public double getMeanMillis() {
+        long n = getCount();
+        return n == 0 ? 0 : toMillis(getTotalNanos()) / n;
+    }
+
+    public double getMaxMillis() {
+        return toMillis(getMaxNanos());
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the upper bound in milliseconds of the bucket the percentile falls in, capped to the slowest recorded call
+     * */
+    public double getPercentileMillis(double percentile) {
+        long n = getCount();
+        if(n == 0) return 0;
+        long target = (long) Math.ceil(n * (percentile / 100.0));
+        long seen = 0;
+        for(int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if(seen >= target) return toMillis(Math.min(BOUNDS_NANOS[i], getMaxNanos()));
+        }
+        return getMaxMillis();
+    }
+
+    public long[] getBucketCounts() {
+        long[] result = new long[buckets.length];
+        for(int i = 0; i < buckets.length; i++) result[i] = buckets[i].sum();
+        return result;
+    }
+
+    public static long[] getBucketBoundsNanos() {
+        return BOUNDS_NANOS.clone();
+    }
+
+    public void reset() {
+        for(LongAdder bucket : buckets) bucket.reset();
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,169 @@
+package com.dndcraft.atlas.util;
+
+import com.dndcraft.atlas.Atlas;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory name to UUID directory of every player we know about, so resolving a player name never has to
+ * block on disk or on Mojang. It's seeded from the server's usercache.json and kept current as players join,
+ * names we've never seen are looked up with Mojang on a couple of lookup threads of its own.
+ * Only players that joined or are in the user cache count as known, Mojang answers are kept apart from them.
+ * @ApiNote Mojang rate limits name lookups, so names Mojang doesn't know are remembered as unknown for a while.
+ * @Author Nickrocky
+ * */
+public final class PlayerDirectory {
+    private static final Map<String, UUID> UUIDS = new ConcurrentHashMap<>();
+    private static final Map<UUID, String> NAMES = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Optional<UUID>>> PENDING = new ConcurrentHashMap<>();
+    private static final Cache<String, UUID> LOOKED_UP = CacheBuilder.newBuilder()
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .maximumSize(10_000)
+            .build();
+    private static final Cache<String, Boolean> UNKNOWN = CacheBuilder.newBuilder()
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .maximumSize(10_000)
+            .build();
+
+    //Not the Atlas worker pool: resolve() is called from @Async commands running on that pool,
+    //waiting there on a lookup queued behind them could starve it
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ThreadPoolExecutor LOOKUPS = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "Atlas-Mojang-Lookup-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        LOOKUPS.allowCoreThreadTimeOut(true);
+    }
+
+    private PlayerDirectory() {}
+
+    /**
+     * Remembers a player's current name, call this whenever a player joins
+     * */
+    public static void record(UUID uuid, String name) {
+        String previous = NAMES.put(uuid, name);
+        if(previous != null && !previous.equalsIgnoreCase(name)) UUIDS.remove(previous.toLowerCase(), uuid);
+        UUIDS.put(name.toLowerCase(), uuid);
+        UNKNOWN.invalidate(name.toLowerCase());
+    }
+
+    /**
+     * Loads every entry of a vanilla usercache.json file, which every Minecraft server keeps in its root folder
+     * @param userCache the usercache.json file
+     * @return how many players were loaded
+     * */
+    public static int seed(File userCache) {
+        if(!userCache.isFile()) return 0;
+        int loaded = 0;
+        try(Reader reader = Files.newBufferedReader(userCache.toPath(), StandardCharsets.UTF_8)) {
+            for(JsonElement element : new JsonParser().parse(reader).getAsJsonArray()) {
+                JsonObject entry = element.getAsJsonObject();
+                UUID uuid = UUID.fromString(entry.get("uuid").getAsString());
+                String name = entry.get("name").getAsString();
+                //Never overwrite a name learned from a join, it's newer than whatever the cache says
+                if(NAMES.putIfAbsent(uuid, name) == null) {
+                    UUIDS.putIfAbsent(name.toLowerCase(), uuid);
+                    loaded++;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Atlas.get().getLogger().warning("[Atlas] Could not read the user cache " + userCache.getName() + ": " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    /**
+     * @return the UUID of the player with this name if we already know it or Mojang told us, never blocks
+     * */
+    public static Optional<UUID> getUUID(String name) {
+        String key = name.toLowerCase();
+        UUID known = UUIDS.get(key);
+        return Optional.ofNullable(known != null ? known : LOOKED_UP.getIfPresent(key));
+    }
+
+    /**
+     * @return the last known name of this player, never blocks
+     * */
+    public static Optional<String> getName(UUID uuid) {
+        return Optional.ofNullable(NAMES.get(uuid));
+    }
+
+    /**
+     * @return whether this player joined or is in the user cache, a UUID we only got from Mojang doesn't count
+     * */
+    public static boolean isKnown(UUID uuid) {
+        return NAMES.containsKey(uuid);
+    }
+
+    /**
+     * Looks up the UUID of a name, asking Mojang on a lookup thread if we don't know it yet.
+     * Concurrent lookups of the same name share a single request.
+     * @return a future holding the UUID, or empty if no such player exists
+     * */
+    public static CompletableFuture<Optional<UUID>> lookup(String name) {
+        String key = name.toLowerCase();
+        Optional<UUID> known = getUUID(key);
+        if(known.isPresent()) return CompletableFuture.completedFuture(known);
+        if(UNKNOWN.getIfPresent(key) != null) return CompletableFuture.completedFuture(Optional.empty());
+
+        CompletableFuture<Optional<UUID>> future = PENDING.computeIfAbsent(key,
+                $ -> CompletableFuture.supplyAsync(() -> requestFromMojang(name), LOOKUPS));
+        future.whenComplete((result, error) -> PENDING.remove(key, future));
+        return future;
+    }
+
+    /**
+     * Looks up the UUID of a name, waiting up to the timeout for Mojang if we don't know it yet.
+     * @ApiNote Never call this on the server thread, use {@link #getUUID(String)} or {@link #lookup(String)} there.
+     * @return the UUID, or empty if no such player exists or Mojang didn't answer in time
+     * */
+    public static Optional<UUID> resolve(String name, Duration timeout) {
+        try {
+            return lookup(name).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Optional<UUID> requestFromMojang(String name) {
+        try {
+            UUID uuid = MojangCommunicator.requestPlayerUUID(name);
+            if(uuid == null) {
+                UNKNOWN.put(name.toLowerCase(), Boolean.TRUE);
+                return Optional.empty();
+            }
+            LOOKED_UP.put(name.toLowerCase(), uuid);
+            return Optional.of(uuid);
+        } catch (IOException e) {
+            Atlas.get().getLogger().warning("[Atlas] Could not look up the UUID of " + name + " with Mojang: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
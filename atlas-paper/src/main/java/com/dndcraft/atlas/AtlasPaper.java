@@ -1,23 +1,38 @@
 package com.dndcraft.atlas;
 
 import com.dndcraft.atlas.command.BrigadierProvider;
+import com.dndcraft.atlas.command.CommandAudit;
+import com.dndcraft.atlas.command.Commands;
+import com.dndcraft.atlas.command.CommandsPacketIntercept;
 import com.dndcraft.atlas.command.ItemArg;
+import com.dndcraft.atlas.command.PermissionCacheListener;
 import com.dndcraft.atlas.command.SenderTypes;
+import com.dndcraft.atlas.command.admin.AtlasAdminCommand;
+import com.dndcraft.atlas.command.exception.InvalidPluginCommandException;
 import com.dndcraft.atlas.command.brigadier.CommandNodeManager;
 import com.dndcraft.atlas.io.mongodb.AtlasStorage;
 import com.dndcraft.atlas.item.RestrictionListener;
 import com.dndcraft.atlas.menu.MenuListener;
+import com.dndcraft.atlas.util.AtlasWorkers;
 import com.dndcraft.atlas.util.BukkitComponentBuilder;
+import com.dndcraft.atlas.util.OnlinePlayerIndex;
+import com.dndcraft.atlas.util.PlayerDirectory;
 import com.dndcraft.atlas.util.PlayerUtil;
 import com.dndcraft.atlas.util.Run;
+import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.util.concurrent.Executor;
+
 public class AtlasPaper extends JavaPlugin implements Atlas {
 
     public static AtlasPaper get(){ return (AtlasPaper) Atlas.get();}
 
+    @Getter private final CommandsPacketIntercept commandsIntercept = new CommandsPacketIntercept(this);
+
     @Override
     public void onLoad() {
         InstanceProvider.init(this);
@@ -29,8 +44,12 @@ public class AtlasPaper extends JavaPlugin implements Atlas {
         listen(new MenuListener());
         listen(new RestrictionListener());
         listen(new PlayerUtil());
+        listen(new OnlinePlayerIndex());
+        listen(new PermissionCacheListener());
+        AtlasWorkers.pool().execute(()->PlayerDirectory.seed(new File("usercache.json")));
+        registerCommands();
 
-        Run.as(this).delayed(2, ()->{ //Brigadier singleton deep inside NMS: get and inject
+        Run.as(this).delayed(2, ()->{ //Brigadier singleton deep inside NMS: get and inject, so the server can dispatch to our nodes
             CommandNodeManager.getInstance().inject(BrigadierProvider.get().getBrigadier().getRoot());
         });
     }
@@ -41,6 +60,9 @@ public class AtlasPaper extends JavaPlugin implements Atlas {
 
     @Override
     public void onDisable() {
+        AtlasWorkers.shutdown();
+        CommandAudit.stop();
+        Atlas.getSQLHandler().flushKeyValueStores();
         AtlasStorage.stop();
     }
 
@@ -49,6 +71,14 @@ public class AtlasPaper extends JavaPlugin implements Atlas {
         return new BukkitComponentBuilder();
     }
 
+    @Override
+    public Executor mainThreadExecutor() {
+        return r -> {
+            if(Bukkit.isPrimaryThread()) r.run();
+            else Bukkit.getScheduler().runTask(this, r);
+        };
+    }
+
     //todo add AtlasColor
     private void registerCommandParameterTypes() {
         SenderTypes.registerCommandSenderType();
@@ -59,6 +89,14 @@ public class AtlasPaper extends JavaPlugin implements Atlas {
         ItemArg.buildMaterialParameter();
     }
 
+    private void registerCommands() {
+        try {
+            Commands.build(getCommand("atlas"), AtlasAdminCommand::new);
+        } catch (InvalidPluginCommandException e) {
+            getLogger().severe(e.getMessage());
+        }
+    }
+
     private void listen(Listener l) {
         Bukkit.getPluginManager().registerEvents(l, this);
     }
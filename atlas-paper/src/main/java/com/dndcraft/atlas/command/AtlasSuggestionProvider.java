@@ -9,7 +9,9 @@ import com.mojang.brigadier.suggestion.SuggestionProvider;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import lombok.RequiredArgsConstructor;
+import org.bukkit.command.CommandSender;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
@@ -18,18 +20,22 @@ public class AtlasSuggestionProvider<T> implements SuggestionProvider<T> {
 
 	@Override
 	public CompletableFuture<Suggestions> getSuggestions(CommandContext<T> context, SuggestionsBuilder builder) throws CommandSyntaxException {
-		T source = context.getSource();
-		Sender sender = new BukkitSender(BrigadierProvider.get().getBukkitSender(source));
+		CommandSender source = BrigadierProvider.get().getBukkitSender(context.getSource());
+		Sender sender = new BukkitSender(source); //Cheap, and caching it would keep the player alive
+		String remaining = builder.getRemaining();
 		
-		for(CommandCompleter.Suggestion suggestion : arg.getCompleter().suggest(sender, builder.getRemaining())) {
-			String sugg = suggestion.getLiteral();
-			if (sugg.toLowerCase().startsWith(builder.getRemaining().toLowerCase())) {
-				if(suggestion.hasTooltip()) builder.suggest(sugg, new LiteralMessage(suggestion.getTooltip()) );
-				else builder.suggest(sugg);
-			}
+		//Async completers hand back an incomplete future, the client just gets its suggestions a little later
+		return arg.getCompleter().suggestAsync(sender, remaining).thenApply(suggestions -> suggest(builder, remaining, suggestions));
+	}
+	
+	private Suggestions suggest(SuggestionsBuilder builder, String remaining, Collection<CommandCompleter.Suggestion> suggestions) {
+		for(CommandCompleter.Suggestion suggestion : suggestions) {
+			if(!suggestion.matches(remaining)) continue;
+			if(suggestion.hasTooltip()) builder.suggest(suggestion.getLiteral(), new LiteralMessage(suggestion.getTooltip()));
+			else builder.suggest(suggestion.getLiteral());
 		}
-
-		return builder.buildFuture();
+		
+		return builder.build();
 	}
 
 }
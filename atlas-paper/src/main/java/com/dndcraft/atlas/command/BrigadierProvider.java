@@ -9,7 +9,7 @@ import lombok.SneakyThrows;
 import org.apache.commons.lang.Validate;
 import org.bukkit.command.CommandSender;
 
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 
 public class BrigadierProvider {
@@ -19,55 +19,71 @@ public class BrigadierProvider {
 	 */
 	enum NMSType{Nms117, NmsNew}
 
-	private static final BrigadierProvider INSTANCE = new BrigadierProvider();
-	public static BrigadierProvider get() { return INSTANCE; }
-
-	@Getter private boolean functional = true;
-
-	private Method getServer;
-	private Method getMCDispatcher;
-	private Method getBrigadier;
-	private Method getItemStack;
-
-	private Constructor<ArgumentType<Object>> itemStackArgument;
-
-	private Method getBukkitSender = null;
+	private static final NmsHandles HANDLES;
+	private static final Method ITEM_STACK_METHOD;
+	private static final Throwable SETUP_FAILURE;
 
 	/**
 	 * 1.18 getCommandDispatcher = aA
 	 * 1.19 getCommandDispatcher = aC
 	 * */
 
-	@SuppressWarnings("unchecked")
-	private BrigadierProvider() {
+	static {
+		//Everything is resolved once into method handles, see NmsHandles for how they are called
+		NmsHandles handles = null;
+		Method itemStackMethod = null;
+		Throwable failure = null;
 		try {
 			var serverClass = MinecraftReflection.getMinecraftServerClass();
-			getServer = serverClass.getMethod("getServer");
-			getMCDispatcher = serverClass.getDeclaredMethod("aC");
-
-			getMCDispatcher.setAccessible(true);
-			getBrigadier = reflectBrigadierGetter();
-			getItemStack = reflectItemStackGetter();
-			if (getNMSType()==NMSType.NmsNew) {
-				itemStackArgument = (Constructor<ArgumentType<Object>>) MinecraftReflection.getMinecraftClass("ArgumentItemStack").getConstructor();
-			} else {
-				Class<?> argItemS = null;
-				try { argItemS = Class.forName("net.minecraft.commands.arguments.item.ArgumentItemStack");
-				} catch (ClassNotFoundException e) {
-                    Atlas.get().getLogger().severe("Failed to locate class: ArgumentItemStack "+e);}
-				assert argItemS != null;
-				itemStackArgument = (Constructor<ArgumentType<Object>>) argItemS.getConstructor();
-			}
+			var dispatcherGetter = serverClass.getDeclaredMethod("aC");
+			dispatcherGetter.setAccessible(true);
+
+			var brigadierGetter = reflectBrigadierGetter();
+			brigadierGetter.setAccessible(true);
 
+			itemStackMethod = reflectItemStackGetter();
+			itemStackMethod.setAccessible(true);
+
+			Class<?> argItemS;
+			if (getNMSType()==NMSType.NmsNew) argItemS = MinecraftReflection.getMinecraftClass("ArgumentItemStack");
+			else argItemS = Class.forName("net.minecraft.commands.arguments.item.ArgumentItemStack");
+
+			handles = new NmsHandles(serverClass.getMethod("getServer"), dispatcherGetter, brigadierGetter, itemStackMethod, argItemS.getConstructor());
+		} catch(Exception | LinkageError e) {
+			failure = e;
+		}
+
+		HANDLES = handles;
+		ITEM_STACK_METHOD = itemStackMethod;
+		SETUP_FAILURE = failure;
+	}
+
+	private static final BrigadierProvider INSTANCE = new BrigadierProvider();
+	public static BrigadierProvider get() { return INSTANCE; }
+
+	@Getter private boolean functional = true;
 
-		} catch(Exception e) {
+	private volatile CommandDispatcher<Object> dispatcher = null;
+	private ArgumentType<Object> itemStackArgument = null;
+	private volatile MethodHandle getBukkitSender = null;
+
+	private BrigadierProvider() {
+		if(SETUP_FAILURE != null) {
 			Atlas.get().getLogger().severe("We were unable to set up the BrigadierProvider. Likely a reflection error!");
 			functional = false;
-			e.printStackTrace();
+			SETUP_FAILURE.printStackTrace();
+			return;
+		}
+
+		try {
+			//Argument types hold no state, one instance serves every command and every parse
+			itemStackArgument = HANDLES.itemStackArgument();
+		} catch(Throwable e) {
+			Atlas.get().getLogger().severe("Failed to create the ArgumentItemStack "+e);
 		}
 	}
 
-	private Method reflectBrigadierGetter() throws Exception {
+	private static Method reflectBrigadierGetter() throws Exception {
 		if (getNMSType()==NMSType.NmsNew) {
 			var dispatcherClass = MinecraftReflection.getMinecraftClass("CommandDispatcher");
 			for(var xx : dispatcherClass.getDeclaredMethods()) {
@@ -85,7 +101,7 @@ public class BrigadierProvider {
 		throw new NoSuchMethodError("CommandDispatcher getter in Minecraft");
 	}
 
-	private Method reflectItemStackGetter() throws Exception {
+	private static Method reflectItemStackGetter() throws Exception {
 		if (getNMSType()==NMSType.NmsNew) {
 			var dispatcherClass = MinecraftReflection.getMinecraftClass("ArgumentPredicateItemStack");
 			var itemStackClass = MinecraftReflection.getItemStackClass();
@@ -116,42 +132,59 @@ public class BrigadierProvider {
 		throw new NoSuchMethodError("ArgumentPredicateItemStack getter for ItemStack");
 	}
 
-	@SuppressWarnings("unchecked")
+	/**
+	 * @return the dispatcher of the server, looked up once and reused after that
+	 */
 	public CommandDispatcher<Object> getBrigadier() {
 		Validate.isTrue(functional);
+		CommandDispatcher<Object> result = dispatcher;
+		if(result != null) return result;
+
 		try {
-			var server = getServer.invoke(null); //Static MinecraftServer getter
-			var dispatch = getMCDispatcher.invoke(server);
-			return (CommandDispatcher<Object>) getBrigadier.invoke(dispatch);
-		} catch(Exception e) {
-			Atlas.get().getLogger().severe("Brigadier Decided to crash on us after startup time");
+			Object server = HANDLES.server(); //Static MinecraftServer getter
+			result = HANDLES.brigadier(HANDLES.mcDispatcher(server));
+			dispatcher = result;
+			return result;
+		} catch(Throwable e) {
+			Atlas.get().getLogger().severe("Brigadier Decided to crash on us after startup time: " + e);
 			functional = false;
 			return null;
 		}
 	}
 
 	public ArgumentType<Object> argumentItemStack(){
-		try {
-			return itemStackArgument.newInstance();
-		} catch (Exception e) {
-			e.printStackTrace();
-			return null;
-		}
+		return itemStackArgument;
 	}
 
+	/**
+	 * @deprecated reflective, use {@link #getNmsItemStack(Object, int)}
+	 */
+	@Deprecated
 	public Method getItemStackParser() {
-		return getItemStack;
+		return ITEM_STACK_METHOD;
+	}
+
+	/**
+	 * @param argumentPredicateItemStack what {@link #argumentItemStack()} parsed
+	 * @return the NMS ItemStack it describes
+	 */
+	@SneakyThrows
+	public Object getNmsItemStack(Object argumentPredicateItemStack, int amount) {
+		return HANDLES.itemStack(argumentPredicateItemStack, amount);
 	}
 
 	@SneakyThrows
 	public CommandSender getBukkitSender(Object commandListenerWrapper) {
-		if(getBukkitSender == null) {
-			getBukkitSender = commandListenerWrapper.getClass().getMethod("getBukkitSender");
+		MethodHandle handle = getBukkitSender;
+		if(handle == null) { //The source class is only known once we're handed one
+			handle = NmsHandles.bukkitSenderGetter(commandListenerWrapper.getClass());
+			getBukkitSender = handle;
 		}
 
-		return (CommandSender) getBukkitSender.invoke(commandListenerWrapper);
+		return NmsHandles.bukkitSender(handle, commandListenerWrapper);
 	}
-	private NMSType getNMSType(){
+
+	private static NMSType getNMSType(){
 		try {
 			Class.forName("net.minecraft.commands.CommandDispatcher");
 			Class.forName("net.minecraft.commands.arguments.item.ArgumentItemStack");
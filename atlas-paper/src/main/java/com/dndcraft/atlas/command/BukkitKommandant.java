@@ -1,6 +1,8 @@
 package com.dndcraft.atlas.command;
 
+import com.dndcraft.atlas.agnostic.Sender;
 import com.dndcraft.atlas.command.brigadier.Kommandant;
+import com.dndcraft.atlas.wrapper.BukkitSender;
 import com.mojang.brigadier.arguments.ArgumentType;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
@@ -11,6 +13,11 @@ public class BukkitKommandant extends Kommandant {
 		super(built);
 	}
 
+	@Override
+	protected Sender getSender(Object source) {
+		return new BukkitSender(BrigadierProvider.get().getBukkitSender(source));
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	@Override
 	protected RequiredArgumentBuilder makeBuilderWithSuggests(String name, ArgumentType<?> type, CmdArg<?> arg) {
@@ -1,5 +1,6 @@
 package com.dndcraft.atlas.command;
 
+import com.dndcraft.atlas.AtlasPaper;
 import com.dndcraft.atlas.command.brigadier.CommandNodeManager;
 import com.dndcraft.atlas.command.brigadier.Kommandant;
 import com.dndcraft.atlas.command.exception.InvalidPluginCommandException;
@@ -19,12 +20,15 @@ public class Commands {
 	public static AtlasCommandBuilder builder(PluginCommand command, Supplier<CommandTemplate> template) {
 		var wrapper = new BukkitCommand(command);
 		return new AnnotatedCommandParser(template, wrapper).invokeParse((handler)->{
+			AtlasCommandExecutor executor = new AtlasCommandExecutor(handler);
 			Kommandant kommandant = new BukkitKommandant(handler);
+			//Only for vanilla dispatch like /execute ... run, typed commands go through the commandMap to the executor below
+			kommandant.executeWith(executor);
 			kommandant.addBrigadier();
 			CommandNodeManager.getInstance().register(kommandant);
+			AtlasPaper.get().getCommandsIntercept().inject(kommandant); //Only used once some plugin turns it on
 			
 			var pluginCommand = ((BukkitCommand) wrapper).getHandle();
-			AtlasCommandExecutor executor = new AtlasCommandExecutor(handler);
 			pluginCommand.setExecutor(executor);
 		});
 	}
@@ -4,57 +4,222 @@ import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketEvent;
-import com.dndcraft.atlas.Atlas;
 import com.dndcraft.atlas.AtlasPaper;
+import com.dndcraft.atlas.command.brigadier.Kommandant;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.mojang.brigadier.tree.CommandNode;
 import com.mojang.brigadier.tree.RootCommandNode;
 import lombok.RequiredArgsConstructor;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
+/**
+ * Swaps spigot's skeletal argument nodes in the outgoing command tree for our own Brigadier nodes.
+ * The tree we add is pruned to the commands the player may use and built once per permission fingerprint
+ * (which of our command permissions the player has), so every later packet for a player with the same
+ * permissions reuses it.
+ * The fingerprint is taken on the server thread when the server fires PlayerCommandSendEvent, right before it sends
+ * the tree, so the packet thread never asks the permission plugin anything. Players without one get the server's tree as is.
+ * Executing still goes through the nodes CommandNodeManager puts in the server's dispatcher, this only changes what gets sent.
+ * @ApiNote Off unless a plugin calls {@link #startListening()}, the nodes of every Atlas command are collected either way.
+ * @Author Nickrocky
+ */
 @RequiredArgsConstructor
-public class CommandsPacketIntercept {
+public class CommandsPacketIntercept implements Listener {
+	private static final int MAX_CACHED_TREES = 256;
+
 	private final AtlasPaper plugin;
-	
-	private final List<CommandNode<Object>> nodes = Collections.synchronizedList(new ArrayList<>());
-	RootCommandNode<?> lastSeen = null;
-	
-	
-	public void injectNode(CommandNode<Object> node) {
+
+	private final List<CommandNode<Object>> nodes = new ArrayList<>();
+	private final Map<CommandNode<Object>, String> permissions = new IdentityHashMap<>();
+	private volatile Layout layout = null;
+	private final Map<UUID, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+	private boolean listening = false;
+
+	public synchronized void injectNode(CommandNode<Object> node) {
 		nodes.add(node);
+		layout = null;
+	}
+
+	/**
+	 * Injects every node of the Kommandant, remembering which permission each of its (sub)commands needs
+	 */
+	public synchronized void inject(Kommandant kommandant) {
+		for(var node : kommandant.getNodes()) {
+			nodes.add(node);
+			remember(kommandant, node);
+		}
+		layout = null;
+	}
+
+	private void remember(Kommandant kommandant, CommandNode<Object> node) {
+		String permission = kommandant.getPermission(node);
+		if(permission != null) permissions.put(node, permission);
+		for(var kid : node.getChildren()) remember(kommandant, kid);
 	}
-	
-	public void startListening() {
+
+	/**
+	 * Starts pruning the command trees sent to players, call once from the server thread. Does nothing if already started.
+	 */
+	public synchronized void startListening() {
+		if(listening) return;
+		listening = true;
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+
 		//ProtocolLibrary.getProtocolManager().getAsynchronousManager().registerAsyncHandler(
 		ProtocolLibrary.getProtocolManager().addPacketListener(
 				new PacketAdapter(plugin, PacketType.Play.Server.COMMANDS) {
 					@Override
 					public void onPacketSending(final PacketEvent event) {
+						var fingerprint = fingerprints.get(event.getPlayer().getUniqueId());
+						var current = layout();
+						if(fingerprint == null || fingerprint.layout != current) return; //None yet, or taken before more nodes came in: leave the server's tree be
+
 						@SuppressWarnings("unchecked")
 						var root = (RootCommandNode<Object>) event.getPacket().getModifier().read(0);
+						var tree = current.treeFor(fingerprint.bits);
 
-						if(lastSeen == root) Atlas.get().getLogger().severe("ITS A SINGLETON!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!!");
-						lastSeen = root;
-
-						for(var node : nodes) {
-							String name = node.getName();
-							despigot(root, name);
-							root.addChild(node);
-						}
+						//Search spigot's attempts at registering our commands in a single pass
+						//Killing the skeletal framework of spigot gives us full Brigadier power
+						root.getChildren().removeIf(kid -> tree.overridden.contains(kid.getName()));
+						for(var node : tree.nodes) root.addChild(node);
 					}
 				});//.start();
 	}
-	
-	private void despigot(RootCommandNode<Object> root, String alias) {
-		var iter = root.getChildren().iterator();
-		while(iter.hasNext()) {
-			var kid = iter.next(); //Search spigot's attempt at registering the argument
-			if(kid.getName().equals(alias))
-				iter.remove(); //Killing the skeletal framework of spigot gives us full Brigadier power
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onCommandsSent(PlayerCommandSendEvent e) {
+		Layout current = layout();
+		fingerprints.put(e.getPlayer().getUniqueId(), new Fingerprint(current, current.fingerprint(e.getPlayer())));
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onQuit(PlayerQuitEvent e) {
+		fingerprints.remove(e.getPlayer().getUniqueId());
+	}
+
+	private Layout layout() {
+		Layout current = layout;
+		if(current != null) return current;
+		synchronized(this) {
+			if(layout == null) layout = new Layout(new ArrayList<>(nodes), new IdentityHashMap<>(permissions));
+			return layout;
+		}
+	}
+
+	/**
+	 * A snapshot of the injected nodes, along with the trees already built for it
+	 */
+	private static final class Layout {
+		private final List<CommandNode<Object>> nodes;
+		private final Map<CommandNode<Object>, String> permissions;
+		private final Map<String, Integer> bits = new HashMap<>();
+		private final Set<String> overridden = new HashSet<>();
+		private final Set<CommandNode<Object>> gated = Collections.newSetFromMap(new IdentityHashMap<>());
+		private final Cache<BitSet, Tree> trees = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_TREES).build();
+
+		private Layout(List<CommandNode<Object>> nodes, Map<CommandNode<Object>, String> permissions) {
+			this.nodes = nodes;
+			this.permissions = permissions;
+			for(String permission : permissions.values()) bits.putIfAbsent(permission, bits.size());
+			for(var node : nodes) {
+				overridden.add(node.getName());
+				markGated(node);
+			}
+		}
+
+		//A node is gated if it or anything below it needs a permission, everything else can be shared as is
+		private boolean markGated(CommandNode<Object> node) {
+			boolean result = permissions.containsKey(node);
+			for(var kid : node.getChildren()) result |= markGated(kid);
+			if(result) gated.add(node);
+			return result;
+		}
+
+		//Asks the permission plugin, so only on the server thread
+		private BitSet fingerprint(Player player) {
+			BitSet fingerprint = new BitSet(bits.size());
+			bits.forEach((permission, bit) -> {
+				if(player.hasPermission(permission)) fingerprint.set(bit);
+			});
+			return fingerprint;
+		}
+
+		//The trees are shared between packets, nothing downstream modifies nodes it didn't create
+		private Tree treeFor(BitSet fingerprint) {
+			try {
+				return trees.get(fingerprint, () -> build(fingerprint));
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+
+		private Tree build(BitSet fingerprint) {
+			Map<CommandNode<Object>, CommandNode<Object>> copies = new IdentityHashMap<>();
+			List<Runnable> redirects = new ArrayList<>();
+			List<CommandNode<Object>> pruned = new ArrayList<>();
+			for(var node : nodes) prune(node, pruned::add, fingerprint, copies, redirects);
+
+			//Aliases come before the node they redirect to, so they are only made once everything is copied
+			redirects.forEach(Runnable::run);
+			return new Tree(overridden, pruned);
+		}
+
+		private void prune(CommandNode<Object> node, Consumer<CommandNode<Object>> parent, BitSet fingerprint,
+				Map<CommandNode<Object>, CommandNode<Object>> copies, List<Runnable> redirects) {
+			if(!gated.contains(node)) {
+				parent.accept(node);
+				return;
+			}
+
+			String permission = permissions.get(node);
+			if(permission != null && !fingerprint.get(bits.get(permission))) return;
+
+			if(node.getRedirect() != null) {
+				redirects.add(() -> {
+					var target = copies.getOrDefault(node.getRedirect(), node.getRedirect());
+					parent.accept(node.createBuilder().redirect(target).build());
+				});
+				return;
+			}
+
+			var copy = node.createBuilder().build();
+			copies.put(node, copy);
+			for(var kid : node.getChildren()) prune(kid, copy::addChild, fingerprint, copies, redirects);
+			parent.accept(copy);
 		}
 	}
-	
-	
+
+	@RequiredArgsConstructor
+	private static final class Fingerprint {
+		private final Layout layout;
+		private final BitSet bits;
+	}
+
+	@RequiredArgsConstructor
+	private static final class Tree {
+		private final Set<String> overridden;
+		private final List<CommandNode<Object>> nodes;
+	}
+
 }
@@ -33,7 +33,7 @@ public final class ItemArg {
 	private static Function<String, ItemStack> parse = input->{
 		try {
 			Object argumentPredicateItemStack = provider.argumentItemStack().parse(new StringReader(input));
-			Object nmsStack = provider.getItemStackParser().invoke(argumentPredicateItemStack, 1, false);
+			Object nmsStack = provider.getNmsItemStack(argumentPredicateItemStack, 1);
 			ItemStack is = MinecraftReflection.getBukkitItemStack(nmsStack);
 			return is;
 		} catch (CommandSyntaxException e) { //User Parsing error
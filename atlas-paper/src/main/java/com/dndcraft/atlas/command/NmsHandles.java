@@ -0,0 +1,84 @@
+package com.dndcraft.atlas.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.ArgumentType;
+import org.bukkit.command.CommandSender;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * The method handles BrigadierProvider calls into NMS with, each adapted to the exact type it's invoked with below.
+ * invokeExact only works if the call site has the same type as the handle, down to the casts around it, so every
+ * handle is only ever called from the one method here that matches it. Kept apart from the NMS lookups so it can be
+ * tested against plain classes.
+ * @Author Nickrocky
+ */
+final class NmsHandles {
+	private static final MethodType SERVER = MethodType.methodType(Object.class);
+	private static final MethodType MC_DISPATCHER = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType BRIGADIER = MethodType.methodType(CommandDispatcher.class, Object.class);
+	private static final MethodType ITEM_STACK = MethodType.methodType(Object.class, Object.class, int.class, boolean.class);
+	private static final MethodType ITEM_STACK_ARGUMENT = MethodType.methodType(ArgumentType.class);
+	private static final MethodType BUKKIT_SENDER = MethodType.methodType(CommandSender.class, Object.class);
+
+	private final MethodHandle server;
+	private final MethodHandle mcDispatcher;
+	private final MethodHandle brigadier;
+	private final MethodHandle itemStack;
+	private final MethodHandle itemStackArgument;
+
+	/**
+	 * @param server static getter of the MinecraftServer
+	 * @param mcDispatcher the server's getter of its Minecraft command dispatcher
+	 * @param brigadier the Minecraft command dispatcher's getter of the Brigadier dispatcher inside it
+	 * @param itemStack makes an ItemStack of the given amount out of a parsed item argument
+	 * @param itemStackArgument the no-args constructor of the item argument type
+	 * @throws IllegalAccessException if any of them can't be accessed
+	 */
+	NmsHandles(Method server, Method mcDispatcher, Method brigadier, Method itemStack, Constructor<?> itemStackArgument) throws IllegalAccessException {
+		var lookup = MethodHandles.lookup();
+		this.server = lookup.unreflect(server).asType(SERVER);
+		this.mcDispatcher = lookup.unreflect(mcDispatcher).asType(MC_DISPATCHER);
+		this.brigadier = lookup.unreflect(brigadier).asType(BRIGADIER);
+		this.itemStack = lookup.unreflect(itemStack).asType(ITEM_STACK);
+		this.itemStackArgument = lookup.unreflectConstructor(itemStackArgument).asType(ITEM_STACK_ARGUMENT);
+	}
+
+	Object server() throws Throwable {
+		return server.invokeExact();
+	}
+
+	Object mcDispatcher(Object server) throws Throwable {
+		return mcDispatcher.invokeExact(server);
+	}
+
+	@SuppressWarnings("unchecked")
+	CommandDispatcher<Object> brigadier(Object mcDispatcher) throws Throwable {
+		return (CommandDispatcher<Object>) brigadier.invokeExact(mcDispatcher);
+	}
+
+	Object itemStack(Object argumentPredicateItemStack, int amount) throws Throwable {
+		return itemStack.invokeExact(argumentPredicateItemStack, amount, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	ArgumentType<Object> itemStackArgument() throws Throwable {
+		return (ArgumentType<Object>) itemStackArgument.invokeExact();
+	}
+
+	/**
+	 * @param sourceClass the class of the command sources handed to Brigadier, which differs between versions
+	 * @return a handle for {@link #bukkitSender(MethodHandle, Object)}
+	 */
+	static MethodHandle bukkitSenderGetter(Class<?> sourceClass) throws ReflectiveOperationException {
+		return MethodHandles.publicLookup().unreflect(sourceClass.getMethod("getBukkitSender")).asType(BUKKIT_SENDER);
+	}
+
+	static CommandSender bukkitSender(MethodHandle getter, Object source) throws Throwable {
+		return (CommandSender) getter.invokeExact(source);
+	}
+}
@@ -0,0 +1,30 @@
+package com.dndcraft.atlas.command;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Forgets retained permission decisions whenever a player's permissions may have changed.
+ * Permission plugins resend the command tree after a change, which is the closest thing Bukkit has to a permission event.
+ */
+public class PermissionCacheListener implements Listener {
+
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onCommandsSent(PlayerCommandSendEvent e) {
+		PermissionCache.invalidate(e.getPlayer().getName());
+	}
+
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onWorldChange(PlayerChangedWorldEvent e) {
+		PermissionCache.invalidate(e.getPlayer().getName());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	public void onQuit(PlayerQuitEvent e) {
+		PermissionCache.invalidate(e.getPlayer().getName());
+	}
+}
@@ -1,12 +1,15 @@
 package com.dndcraft.atlas.command;
 
 import com.dndcraft.atlas.agnostic.Sender;
+import com.dndcraft.atlas.util.OnlinePlayerIndex;
+import com.dndcraft.atlas.util.PlayerDirectory;
 import com.dndcraft.atlas.wrapper.BukkitSender;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Function;
@@ -19,7 +22,9 @@ public final class SenderTypes {
 
 	public static final Function<Sender, CommandSender> UNWRAP_SENDER = s->((BukkitSender) s).getHandle();
 	public static final Function<Sender, Player> UNWRAP_PLAYER = UNWRAP_SENDER.andThen(s->(s instanceof Player)? ((Player) s):null);
+	private static final Duration OFFLINE_LOOKUP_TIMEOUT = Duration.ofSeconds(5);
 	public static final Supplier<List<String>> PLAYER_COMPLETER = ()->Bukkit.getOnlinePlayers().stream().map(Player::getName).collect(Collectors.toList());
+	public static final CommandCompleter ONLINE_PLAYER_COMPLETER = CommandCompleter.suggestWithTooltips((s, input)->OnlinePlayerIndex.suggest(input));
 	
 	public static void registerCommandSenderType() {
 		Commands.defineArgumentType(CommandSender.class).senderMapper(UNWRAP_SENDER).register();
@@ -36,32 +41,38 @@ public final class SenderTypes {
 					try {return Bukkit.getPlayer(UUID.fromString(s));}
 					catch(IllegalArgumentException e) {return null;}
 				} else {
-					return Bukkit.getPlayer(s);
+					return OnlinePlayerIndex.find(s);
 				}
 			})
-			.completer(PLAYER_COMPLETER)
+			.completer(ONLINE_PLAYER_COMPLETER)
 			.register();
 	}
 	
-	@SuppressWarnings("deprecation")
 	public static void registerOfflinePlayerType() {
 		new ParameterType<>(OfflinePlayer.class)
 		.mapperWithSender((send,s)->{
 			if("@p".equals(s)) s = send.getName();
+			boolean sync = Bukkit.isPrimaryThread();
 			
 			UUID u = uuidFromString(s);
-			
-			OfflinePlayer op = null;
-			if(u != null) {
-				op = Bukkit.getOfflinePlayer(u);
-			} else {
-				op = Bukkit.getOfflinePlayer(s); //Deprecated
+			if(u == null) {
+				//Never make the server thread wait on Mojang. Unknown names get looked up in the background,
+				//so they resolve the next time around. Off the server thread (@Async commands) we can afford to wait
+				if(sync) {
+					u = PlayerDirectory.getUUID(s).orElse(null);
+					if(u == null) PlayerDirectory.lookup(s);
+				} else {
+					u = PlayerDirectory.resolve(s, OFFLINE_LOOKUP_TIMEOUT).orElse(null);
+				}
 			}
-			//TODO: maybe do this in AC for the more powerful name registry?
-			if(op != null && op.hasPlayedBefore()) return op;
-			else return null;
+			if(u == null) return null;
+			
+			OfflinePlayer op = Bukkit.getOfflinePlayer(u);
+			//hasPlayedBefore() can read the player's data file, on the server thread we trust the directory instead
+			boolean played = op.isOnline() || (sync? PlayerDirectory.isKnown(u) : op.hasPlayedBefore());
+			return played? op : null;
 		})
-		.completer(PLAYER_COMPLETER)
+		.completer(ONLINE_PLAYER_COMPLETER)
 		.register();
 	}
 	
@@ -0,0 +1,128 @@
+package com.dndcraft.atlas.util;
+
+import com.dndcraft.atlas.command.CommandCompleter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A case-insensitive, sorted index of everyone online, kept up to date on join and quit.
+ * Name lookups and prefix queries (completions) read an immutable snapshot, so they are safe from any thread and
+ * completions hand out a shared view instead of building a new list of every online player per keystroke.
+ * @Author Nickrocky
+ * */
+public class OnlinePlayerIndex implements Listener {
+
+    private static volatile Snapshot snapshot = new Snapshot(new TreeMap<>(), new TreeMap<>());
+
+    public OnlinePlayerIndex() {
+        //Catch up with everyone already online, in case of a reload
+        for(Player player : Bukkit.getOnlinePlayers()) add(player);
+    }
+
+    /**
+     * @param prefix the start of a name, any case
+     * @return completions for every online player whose name starts with the prefix, in alphabetical order
+     * */
+    public static Collection<CommandCompleter.Suggestion> suggest(String prefix) {
+        return Collections.unmodifiableCollection(snapshot.range(prefix).values());
+    }
+
+    /**
+     * Finds an online player the same way Bukkit.getPlayer(String) does: an exact (case-insensitive) match,
+     * otherwise the player with the shortest name starting with the given name.
+     * @param name the full or partial name
+     * @return the player, or null if nobody online matches
+     * */
+    public static Player find(String name) {
+        Snapshot current = snapshot;
+        String lower = name.toLowerCase();
+        Entry exact = current.byName.get(lower);
+        if(exact != null) return exact.player;
+
+        Entry best = null;
+        for(Entry entry : current.byName.subMap(lower, true, lower + Character.MAX_VALUE, false).values()) {
+            if(best == null || entry.player.getName().length() < best.player.getName().length()) best = entry;
+        }
+        return best == null ? null : best.player;
+    }
+
+    public static int size() {
+        return snapshot.byName.size();
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent e) {
+        add(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        remove(e.getPlayer());
+    }
+
+    private static void add(Player player) {
+        PlayerDirectory.record(player.getUniqueId(), player.getName());
+        update(player.getName().toLowerCase(), new Entry(player));
+    }
+
+    private static void remove(Player player) {
+        update(player.getName().toLowerCase(), null);
+    }
+
+    /**
+     * Copies the current snapshot and applies the single change to the copy. Copying a sorted map is linear
+     * and doesn't compare keys, so nothing is re-sorted.
+     * */
+    private static synchronized void update(String key, Entry replacement) {
+        Snapshot current = snapshot;
+        TreeMap<String, Entry> byName = new TreeMap<>(current.byName);
+        TreeMap<String, CommandCompleter.Suggestion> suggestions = new TreeMap<>(current.suggestions);
+        if(replacement == null) {
+            byName.remove(key);
+            suggestions.remove(key);
+        } else {
+            byName.put(key, replacement);
+            suggestions.put(key, replacement.suggestion);
+        }
+        snapshot = new Snapshot(byName, suggestions);
+    }
+
+    /**
+     * Never modified once published, readers on any thread only ever see a complete one
+     * */
+    private static final class Snapshot {
+        private final NavigableMap<String, Entry> byName;
+        private final NavigableMap<String, CommandCompleter.Suggestion> suggestions;
+
+        private Snapshot(NavigableMap<String, Entry> byName, NavigableMap<String, CommandCompleter.Suggestion> suggestions) {
+            this.byName = byName;
+            this.suggestions = suggestions;
+        }
+
+        private NavigableMap<String, CommandCompleter.Suggestion> range(String prefix) {
+            if(prefix.isEmpty()) return suggestions;
+            String lower = prefix.toLowerCase();
+            return suggestions.subMap(lower, true, lower + Character.MAX_VALUE, false);
+        }
+    }
+
+    private static final class Entry {
+        private final Player player;
+        private final CommandCompleter.Suggestion suggestion;
+
+        private Entry(Player player) {
+            this.player = player;
+            this.suggestion = new CommandCompleter.Suggestion(player.getName());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.dndcraft.atlas.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Calls every NmsHandles handle once against plain classes shaped like the NMS ones, so a call site that doesn't
+ * match its handle's type fails here with a WrongMethodTypeException instead of on a live server at enable.
+ */
+class NmsHandlesTest {
+	private static NmsHandles handles;
+
+	@BeforeAll
+	static void setup() throws ReflectiveOperationException {
+		Method dispatcherGetter = FakeServer.class.getDeclaredMethod("aC");
+		dispatcherGetter.setAccessible(true); //Obfuscated and not public on the real server either
+		handles = new NmsHandles(FakeServer.class.getMethod("getServer"), dispatcherGetter,
+				FakeMcDispatcher.class.getMethod("a"), FakeItemPredicate.class.getMethod("a", int.class, boolean.class),
+				FakeItemArgument.class.getConstructor());
+	}
+
+	@Test
+	void server() throws Throwable {
+		assertSame(FakeServer.INSTANCE, handles.server());
+	}
+
+	@Test
+	void brigadier() throws Throwable {
+		Object mcDispatcher = handles.mcDispatcher(handles.server());
+		assertSame(FakeServer.INSTANCE.dispatcher, mcDispatcher);
+		assertSame(FakeServer.INSTANCE.dispatcher.brigadier, handles.brigadier(mcDispatcher));
+	}
+
+	@Test
+	void itemStack() throws Throwable {
+		Object stack = handles.itemStack(new FakeItemPredicate(), 3);
+		assertInstanceOf(FakeItemStack.class, stack);
+		assertEquals(3, ((FakeItemStack) stack).amount);
+	}
+
+	@Test
+	void itemStackArgument() throws Throwable {
+		assertInstanceOf(FakeItemArgument.class, handles.itemStackArgument());
+	}
+
+	@Test
+	void bukkitSender() throws Throwable {
+		assertNull(NmsHandles.bukkitSender(NmsHandles.bukkitSenderGetter(FakeSource.class), new FakeSource()));
+	}
+
+	public static class FakeServer {
+		static final FakeServer INSTANCE = new FakeServer();
+		final FakeMcDispatcher dispatcher = new FakeMcDispatcher();
+
+		public static FakeServer getServer() {
+			return INSTANCE;
+		}
+
+		private FakeMcDispatcher aC() {
+			return dispatcher;
+		}
+	}
+
+	public static class FakeMcDispatcher {
+		final CommandDispatcher<FakeSource> brigadier = new CommandDispatcher<>();
+
+		public CommandDispatcher<FakeSource> a() {
+			return brigadier;
+		}
+	}
+
+	public static class FakeItemStack {
+		final int amount;
+
+		FakeItemStack(int amount) {
+			this.amount = amount;
+		}
+	}
+
+	public static class FakeItemPredicate {
+		public FakeItemStack a(int amount, boolean checkSize) {
+			return new FakeItemStack(amount);
+		}
+	}
+
+	public static class FakeItemArgument implements ArgumentType<FakeItemPredicate> {
+		@Override
+		public FakeItemPredicate parse(StringReader reader) {
+			return new FakeItemPredicate();
+		}
+	}
+
+	public static class FakeSource {
+		public org.bukkit.command.CommandSender getBukkitSender() {
+			return null; //Only the handle's type matters here
+		}
+	}
+}
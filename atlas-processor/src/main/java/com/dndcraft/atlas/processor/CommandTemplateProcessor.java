@@ -0,0 +1,174 @@
+package com.dndcraft.atlas.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a CompiledTemplate for every concrete CommandTemplate in the sources being compiled, so the
+ * AnnotatedCommandParser can call its command methods directly instead of building method handles for them at enable.
+ * Add atlas-processor to the annotation processor path of your plugin to use it, templates compiled without it
+ * keep working through reflection.
+ * @Author Nickrocky
+ */
+@SupportedAnnotationTypes("*")
+public class CommandTemplateProcessor extends AbstractProcessor {
+	private static final String TEMPLATE = "com.dndcraft.atlas.command.CommandTemplate";
+	private static final String COMPILED = "com.dndcraft.atlas.command.CompiledTemplate";
+	private static final String CMD = "com.dndcraft.atlas.command.annotations.Cmd";
+	private static final String SUFFIX = "_AtlasCommands";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		TypeElement template = processingEnv.getElementUtils().getTypeElement(TEMPLATE);
+		if(template == null) return false; //Atlas isn't on the classpath, nothing for us to do
+
+		for(TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) scan(type, template);
+		return false; //Never claim anything, other processors may want to see the same annotations
+	}
+
+	private void scan(TypeElement type, TypeElement template) {
+		for(TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) scan(nested, template);
+
+		if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) return;
+		if(!processingEnv.getTypeUtils().isSubtype(type.asType(), template.asType())) return;
+		if(!isReachable(type)) return;
+
+		List<ExecutableElement> methods = commandMethods(type);
+		if(methods.isEmpty()) return;
+
+		try {
+			write(type, methods);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not generate the compiled command template: " + e.getMessage(), type);
+		}
+	}
+
+	//The generated class lives in the same package, so it can't reach private or local classes
+	private boolean isReachable(TypeElement type) {
+		for(Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+			TypeElement t = (TypeElement) e;
+			if(t.getNestingKind() != NestingKind.TOP_LEVEL && t.getNestingKind() != NestingKind.MEMBER) return false;
+			if(t.getModifiers().contains(Modifier.PRIVATE)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Every method the parser may call: public @Cmd methods (including sub-layer getters) and public invoke methods
+	 * taking parameters, inherited ones included. Keyed by the signature the parser looks them up with.
+	 */
+	private List<ExecutableElement> commandMethods(TypeElement type) {
+		Map<String, ExecutableElement> result = new LinkedHashMap<>();
+		for(ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+			Set<Modifier> modifiers = method.getModifiers();
+			if(!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) continue;
+
+			boolean invoke = method.getSimpleName().contentEquals("invoke") && !method.getParameters().isEmpty()
+					&& method.getReturnType().getKind() == TypeKind.VOID;
+			if(invoke || hasCmd(method)) result.putIfAbsent(signature(method), method);
+		}
+		return new ArrayList<>(result.values());
+	}
+
+	private boolean hasCmd(ExecutableElement method) {
+		return method.getAnnotationMirrors().stream()
+				.anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(CMD));
+	}
+
+	/**
+	 * Same format as CompiledTemplate.signature(Method), which uses Class.getTypeName() for the parameters
+	 */
+	private String signature(ExecutableElement method) {
+		StringBuilder result = new StringBuilder(method.getSimpleName()).append('(');
+		List<? extends VariableElement> parameters = method.getParameters();
+		for(int i = 0; i < parameters.size(); i++) {
+			if(i > 0) result.append(',');
+			result.append(typeName(processingEnv.getTypeUtils().erasure(parameters.get(i).asType())));
+		}
+		return result.append(')').toString();
+	}
+
+	private String typeName(TypeMirror type) {
+		if(type.getKind() == TypeKind.ARRAY) return typeName(((ArrayType) type).getComponentType()) + "[]";
+		if(type.getKind() == TypeKind.DECLARED) {
+			TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+			return processingEnv.getElementUtils().getBinaryName(element).toString();
+		}
+		return type.toString();
+	}
+
+	private void write(TypeElement type, List<ExecutableElement> methods) throws IOException {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (pkg.isUnnamed()? binaryName : binaryName.substring(pkg.getQualifiedName().length() + 1)) + SUFFIX;
+		String qualifiedName = pkg.isUnnamed()? simpleName : pkg.getQualifiedName() + "." + simpleName;
+		String templateName = type.getQualifiedName().toString();
+
+		try(Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+			if(!pkg.isUnnamed()) out.write("package " + pkg.getQualifiedName() + ";\n\n");
+			out.write("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n");
+			out.write("public final class " + simpleName + " implements " + COMPILED + " {\n\n");
+
+			//Only looked up while parsing, every case hands out its own lambda that calls the method directly
+			out.write("\t@Override\n");
+			out.write("\tpublic " + COMPILED + ".Call find(String signature) {\n");
+			out.write("\t\tswitch(signature) {\n");
+			for(ExecutableElement method : methods) {
+				out.write("\t\t\tcase \"" + signature(method) + "\": return (template, first, args, from) -> " + call(method, templateName) + ";\n");
+			}
+			out.write("\t\t\tdefault: return null;\n");
+			out.write("\t\t}\n");
+			out.write("\t}\n");
+			out.write("}\n");
+		}
+	}
+
+	/**
+	 * The body of the lambda, the first parameter comes from first and the n-th from args.get(from + n - 2)
+	 */
+	private String call(ExecutableElement method, String templateName) {
+		StringBuilder call = new StringBuilder("((").append(templateName).append(") template).").append(method.getSimpleName()).append('(');
+		List<? extends VariableElement> parameters = method.getParameters();
+		for(int i = 0; i < parameters.size(); i++) {
+			if(i > 0) call.append(", ");
+			//Primitives unbox straight from Object, everything else is cast to its erasure
+			TypeMirror erasure = processingEnv.getTypeUtils().erasure(parameters.get(i).asType());
+			call.append('(').append(erasure).append(") ");
+			if(i == 0) call.append("first");
+			else if(i == 1) call.append("args.get(from)");
+			else call.append("args.get(from + ").append(i - 1).append(')');
+		}
+		call.append(')');
+
+		if(method.getReturnType().getKind() == TypeKind.VOID) return "{ " + call + "; return null; }";
+		else return call.toString();
+	}
+}